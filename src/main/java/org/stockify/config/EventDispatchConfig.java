@@ -0,0 +1,103 @@
+package org.stockify.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for the asynchronous domain-event listeners.
+ * <p>
+ * Each listener gets its own pool, so a burst of wishlist alerts after a bulk price update
+ * cannot delay payment or shipment notifications. Pools have a fixed size and a bounded queue.
+ * When the queue is full the event is counted in {@code events.dispatch.rejected}. Payment and
+ * shipment events then run on the publishing thread, which slows the publisher down instead
+ * of dropping the notification. Wishlist events are submitted by the single
+ * {@code eventCoalescingTimer} thread, which must never run a fan-out itself, so that pool
+ * rejects instead and the {@link org.stockify.util.EventCoalescer} keeps the event pending
+ * for another window. Pool and queue usage are published as {@code executor.*} metrics tagged
+ * with the executor name. {@code events.dispatch.virtual-threads} runs the pool workers on
+ * virtual threads.
+ * </p>
+ */
+@Configuration
+@EnableAsync
+public class EventDispatchConfig {
+
+    @Value("${events.dispatch.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Bean(name = "wishlistEventExecutor")
+    public ThreadPoolTaskExecutor wishlistEventExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${events.dispatch.wishlist.threads:4}") int threads,
+            @Value("${events.dispatch.wishlist.queue-capacity:2000}") int queueCapacity) {
+        return boundedExecutor("wishlist-event", threads, queueCapacity, false, meterRegistry);
+    }
+
+    @Bean(name = "shipmentEventExecutor")
+    public ThreadPoolTaskExecutor shipmentEventExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${events.dispatch.shipment.threads:2}") int threads,
+            @Value("${events.dispatch.shipment.queue-capacity:500}") int queueCapacity) {
+        return boundedExecutor("shipment-event", threads, queueCapacity, true, meterRegistry);
+    }
+
+    @Bean(name = "paymentEventExecutor")
+    public ThreadPoolTaskExecutor paymentEventExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${events.dispatch.payment.threads:2}") int threads,
+            @Value("${events.dispatch.payment.queue-capacity:500}") int queueCapacity) {
+        return boundedExecutor("payment-event", threads, queueCapacity, true, meterRegistry);
+    }
+
+    /**
+     * Timer that flushes coalesced events once their window closes. It only hands the merged
+     * event to the listener's executor, so a single thread is enough.
+     */
+    @Bean(name = "eventCoalescingTimer", destroyMethod = "shutdown")
+    public ScheduledExecutorService eventCoalescingTimer() {
+        return Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("event-coalescing").daemon(true).factory());
+    }
+
+    /**
+     * @param callerRuns whether a task rejected by a full queue runs on the submitting thread;
+     *                   otherwise {@code execute} throws {@link RejectedExecutionException}
+     */
+    private ThreadPoolTaskExecutor boundedExecutor(String name, int threads, int queueCapacity,
+                                                   boolean callerRuns, MeterRegistry meterRegistry) {
+        Counter rejected = meterRegistry.counter("events.dispatch.rejected", "executor", name);
+        RejectedExecutionHandler overflow = callerRuns
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            overflow.rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,37 @@
+package org.stockify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for product import jobs.
+ * <p>
+ * Imports are long running and database heavy, so they get a small fixed pool and a
+ * bounded queue instead of sharing the web request threads. Once the queue is full new
+ * jobs are rejected rather than piling up.
+ * </p>
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    @Value("${product.import.jobs.concurrency:2}")
+    private int concurrency;
+
+    @Value("${product.import.jobs.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Bean(name = "productImportExecutor")
+    public ThreadPoolTaskExecutor productImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("product-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
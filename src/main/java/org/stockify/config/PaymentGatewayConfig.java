@@ -0,0 +1,24 @@
+package org.stockify.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for the blocking calls to the Mercado Pago API.
+ * <p>
+ * Each call runs on its own virtual thread, so a slow gateway parks cheap threads instead of
+ * holding Tomcat's request threads. How many calls may be in flight at once is limited by
+ * {@code MercadoPagoGateway}, not by the executor.
+ * </p>
+ */
+@Configuration
+public class PaymentGatewayConfig {
+
+    @Bean(name = "paymentGatewayExecutor", destroyMethod = "shutdown")
+    public ExecutorService paymentGatewayExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mercadopago-", 0).factory());
+    }
+}
@@ -0,0 +1,29 @@
+package org.stockify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler for the {@code @Scheduled} jobs.
+ * <p>
+ * Declared explicitly because the {@code eventCoalescingTimer} executor switches off Spring
+ * Boot's own scheduler, and {@code @Scheduled} would then fall back to that single timer
+ * thread. The pool has {@code spring.task.scheduling.pool.size} threads, so a long job (the
+ * expired checkout sweep, for example) does not hold back the others. The Mercado Pago
+ * webhook dispatcher runs on its own {@code webhookDispatchScheduler}.
+ * </p>
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(
+            @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+}
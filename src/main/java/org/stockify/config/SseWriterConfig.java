@@ -0,0 +1,56 @@
+package org.stockify.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writers that drain the outbound queues of the SSE connections.
+ * <p>
+ * By default a pool of platform threads drains the queues. It keeps
+ * {@code notifications.sse.writer-threads} threads and hands each drain to an idle thread, or
+ * starts a new one up to {@code notifications.sse.max-writer-threads}; drains never wait in a
+ * queue behind a blocked writer. A client that stops reading is evicted after
+ * {@code notifications.sse.send-timeout-ms}, but its writer stays blocked until the
+ * container's write timeout, so the extra threads are the headroom for those. When every
+ * thread is busy the drain is refused and retried on the next event or keepalive. Pool usage
+ * is published as {@code executor.*} metrics tagged {@code sse-writer}.
+ * </p>
+ * <p>
+ * {@code notifications.sse.virtual-threads=true} runs every drain on its own virtual thread
+ * instead. Leave it off on Spring Framework 6.1: {@code ResponseBodyEmitter.send} is
+ * {@code synchronized}, so a blocked socket write pins the carrier thread. About one stalled
+ * client per CPU core then pins every carrier, which also stalls the other virtual threads of
+ * the application, such as the Mercado Pago gateway calls.
+ * </p>
+ */
+@Configuration
+public class SseWriterConfig {
+
+    @Bean(name = "sseWriterExecutor", destroyMethod = "shutdown")
+    public ExecutorService sseWriterExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${notifications.sse.virtual-threads:false}") boolean virtualThreads,
+            @Value("${notifications.sse.writer-threads:4}") int writerThreads,
+            @Value("${notifications.sse.max-writer-threads:64}") int maxWriterThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-writer-", 0).factory());
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                writerThreads, Math.max(writerThreads, maxWriterThreads),
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                Thread.ofPlatform().name("sse-writer-", 0).factory());
+        new ExecutorServiceMetrics(executor, "sse-writer", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,47 @@
+package org.stockify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Worker pool for queued Mercado Pago webhook notifications.
+ * <p>
+ * The pool is fixed at {@code mercadopago.webhook.workers} threads. The dispatcher only
+ * claims as many notifications as there are free workers, so the queue never holds more
+ * than one batch and nothing is rejected.
+ * </p>
+ * <p>
+ * The dispatcher polls on its own single-thread scheduler, so the other scheduled jobs never
+ * delay payment processing.
+ * </p>
+ */
+@Configuration
+public class WebhookExecutorConfig {
+
+    @Value("${mercadopago.webhook.workers:4}")
+    private int workers;
+
+    @Bean(name = "webhookExecutor")
+    public ThreadPoolTaskExecutor webhookExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mp-webhook-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "webhookDispatchScheduler")
+    public ThreadPoolTaskScheduler webhookDispatchScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("mp-webhook-dispatch-");
+        return scheduler;
+    }
+}
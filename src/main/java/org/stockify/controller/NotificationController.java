@@ -17,6 +17,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -30,7 +31,11 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.stockify.dto.request.notifications.NotificationRequest;
 import org.stockify.dto.response.NotificationResponse;
+import org.stockify.dto.response.SseNodeStatsResponse;
 import org.stockify.model.service.NotificationService;
+import org.stockify.model.service.SseNodeMonitor;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/notifications")
@@ -40,6 +45,7 @@ import org.stockify.model.service.NotificationService;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final SseNodeMonitor sseNodeMonitor;
 
     @GetMapping
     public ResponseEntity<Page<NotificationResponse>> getAll(
@@ -154,4 +160,15 @@ public class NotificationController {
             @PathVariable Long userId) {
         return notificationService.subscribe(userId);
     }
+
+    @Operation(summary = "List live SSE connection counts per API node")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Connection counts retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Not an administrator", content = @Content)
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/admin/connections")
+    public ResponseEntity<List<SseNodeStatsResponse>> connections() {
+        return ResponseEntity.ok(sseNodeMonitor.liveNodes());
+    }
 }
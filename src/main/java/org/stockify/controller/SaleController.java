@@ -24,6 +24,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.stockify.dto.request.sale.SaleFilterRequest;
 import org.stockify.dto.request.sale.SaleRequest;
+import org.stockify.dto.response.CursorPageResponse;
 import org.stockify.dto.response.SaleResponse;
 import org.stockify.model.assembler.SaleModelAssembler;
 import org.stockify.model.service.SaleService;
@@ -62,6 +63,29 @@ public class SaleController {
                 return ResponseEntity.ok(assembler.toModel(saleResponsePage, saleModelAssembler));
         }
 
+        @Operation(
+                summary = "Get sales with cursor pagination",
+                description = "Returns sales newest first. Pass the returned nextCursor as 'after' to get the next page; the total count is only computed when includeTotal is true",
+                responses = {
+                        @ApiResponse(responseCode = "200", description = "Page of sales retrieved")
+        })
+        @GetMapping("/cursor")
+        @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('GENERATE_REPORTS')")
+        public ResponseEntity<CursorPageResponse<EntityModel<SaleResponse>>> getAllByCursor(
+                        @Parameter(description = "Filter request object") @ParameterObject SaleFilterRequest filterRequest,
+
+                        @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String after,
+
+                        @Parameter(description = "Page size", example = "20") @RequestParam(required = false, defaultValue = "20") int size,
+
+                        @Parameter(description = "Whether to compute the total count") @RequestParam(required = false, defaultValue = "false") boolean includeTotal) {
+
+                CursorPageResponse<SaleResponse> page = saleService.findAllByCursor(filterRequest, size, after, includeTotal);
+                return ResponseEntity.ok(new CursorPageResponse<>(
+                                page.content().stream().map(saleModelAssembler::toModel).toList(),
+                                page.nextCursor(), page.hasNext(), page.totalElements()));
+        }
+
         @Operation(summary = "Get my sales", description = "Returns a paginated list of sales for the authenticated user", responses = {
                         @ApiResponse(responseCode = "200", description = "Paged list of sales retrieved", content = @Content(schema = @Schema(implementation = PagedModel.class)))
         })
@@ -25,6 +25,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.stockify.dto.request.shipment.ShipmentFilterRequest;
 import org.stockify.dto.request.shipment.UpdateShipmentRequest;
+import org.stockify.dto.response.CursorPageResponse;
 import org.stockify.dto.response.ShipmentResponse;
 import org.stockify.dto.response.SaleResponse;
 import org.stockify.model.assembler.ShipmentModelAssembler;
@@ -72,6 +73,34 @@ public class ShipmentController {
         return ResponseEntity.ok(assembler.toModel(saleResponsePage, shipmentModelAssembler));
     }
 
+    @Operation(
+            summary = "Get shipments with cursor pagination",
+            description = "Returns shipments newest first. Pass the returned nextCursor as 'after' to get the next page; the total count is only computed when includeTotal is true",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Page of shipments retrieved")
+            }
+    )
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('USER') or hasAuthority('READ')")
+    public ResponseEntity<CursorPageResponse<EntityModel<ShipmentResponse>>> getAllByCursor(
+            @Parameter(description = "Filter request object")
+            @ParameterObject ShipmentFilterRequest filterRequest,
+
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(required = false, defaultValue = "20") int size,
+
+            @Parameter(description = "Whether to compute the total count")
+            @RequestParam(required = false, defaultValue = "false") boolean includeTotal) {
+
+        CursorPageResponse<ShipmentResponse> page = shipmentService.findAllByCursor(filterRequest, size, after, includeTotal);
+        return ResponseEntity.ok(new CursorPageResponse<>(
+                page.content().stream().map(shipmentModelAssembler::toModel).toList(),
+                page.nextCursor(), page.hasNext(), page.totalElements()));
+    }
+
     @Operation(
             summary = "Get shipment by ID",
             description = "Returns a single shipment by its ID",
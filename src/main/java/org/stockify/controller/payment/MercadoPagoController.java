@@ -15,8 +15,10 @@ import org.springframework.web.bind.annotation.*;
 import org.stockify.dto.request.sale.SaleRequest;
 import org.stockify.dto.response.MercadoPagoPreferenceResponse;
 import org.stockify.model.service.MercadoPagoService;
+import org.stockify.model.service.MercadoPagoWebhookQueue;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -27,25 +29,29 @@ import java.util.Map;
 public class MercadoPagoController {
 
     private final MercadoPagoService mercadoPagoService;
+    private final MercadoPagoWebhookQueue mercadoPagoWebhookQueue;
 
     @Operation(summary = "Create a Mercado Pago preference", responses = {
             @ApiResponse(responseCode = "200", description = "Preference created", content = @Content(schema = @Schema(implementation = MercadoPagoPreferenceResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid payload", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid payload", content = @Content),
+            @ApiResponse(responseCode = "502", description = "Mercado Pago rejected the preference", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Mercado Pago unavailable or too many checkouts in progress", content = @Content),
+            @ApiResponse(responseCode = "504", description = "Mercado Pago did not answer in time", content = @Content)
     })
     @PostMapping("/preferences")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<MercadoPagoPreferenceResponse> createPreference(@Valid @RequestBody SaleRequest request) {
-        MercadoPagoPreferenceResponse response = mercadoPagoService.createPreference(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<MercadoPagoPreferenceResponse>> createPreference(
+            @Valid @RequestBody SaleRequest request) {
+        return mercadoPagoService.createPreference(request).thenApply(ResponseEntity::ok);
     }
 
-    @Operation(summary = "Webhook para notificaciones de pago de MercadoPago", description = "Endpoint que recibe las notificaciones de pago de MercadoPago")
+    @Operation(summary = "Webhook para notificaciones de pago de MercadoPago", description = "Registra la notificacion de pago y responde de inmediato; el pago se procesa en segundo plano")
     @PostMapping("/webhook")
     public ResponseEntity<String> webhookNotification(
             @RequestParam Map<String, String> params,
             @RequestBody(required = false) Map<String, Object> body,
             @RequestHeader(value = "x-signature", required = false) String xSignature,
             @RequestHeader(value = "x-request-id", required = false) String xRequestId) {
-        return mercadoPagoService.handleWebhook(params, body, xSignature, xRequestId);
+        return mercadoPagoWebhookQueue.accept(params, body);
     }
 }
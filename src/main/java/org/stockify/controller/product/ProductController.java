@@ -25,11 +25,18 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.stockify.dto.request.product.ProductFilterRequest;
 import org.stockify.dto.request.product.ProductRequest;
+import org.stockify.dto.response.BulkItemResponse;
 import org.stockify.dto.response.BulkProductResponse;
+import org.stockify.dto.response.CursorPageResponse;
+import org.stockify.dto.response.ImportJobResponse;
 import org.stockify.dto.response.ProductResponse;
+import org.stockify.dto.response.SuggestionResponse;
 import org.stockify.model.assembler.ProductModelAssembler;
+import org.stockify.model.service.ProductImportJobService;
 import org.stockify.model.service.ProductService;
+import org.stockify.model.service.ProductSuggestionIndex;
 
+import java.io.IOException;
 import java.util.List;
 import org.stockify.dto.response.ProductPreviewResponse;
 
@@ -42,6 +49,10 @@ public class ProductController {
 
         private final ProductService productService;
         private final ProductModelAssembler productModelAssembler;
+        private final ProductImportJobService productImportJobService;
+        private final ProductSuggestionIndex productSuggestionIndex;
+
+        private static final int MAX_SUGGESTIONS = 20;
 
         @Operation(summary = "List all products with optional filters")
         @ApiResponses(value = {
@@ -57,6 +68,55 @@ public class ProductController {
                 return ResponseEntity.ok(assembler.toModel(products, productModelAssembler));
         }
 
+        @Operation(summary = "List products with cursor pagination",
+                        description = "Same filters as the paged listing. Pass the returned nextCursor as 'after' to get the next page; the total count is only computed when includeTotal is true")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Page of products returned successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property")
+        })
+        @GetMapping("/cursor")
+        public ResponseEntity<CursorPageResponse<EntityModel<ProductResponse>>> listProductsByCursor(
+                        @ParameterObject ProductFilterRequest filter,
+                        @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String after,
+                        @Parameter(description = "Page size", example = "12") @RequestParam(defaultValue = "12") int size,
+                        @Parameter(description = "Sort property: name, price, stock, soldQuantity, discountPercentage or id", example = "name")
+                        @RequestParam(defaultValue = "name") String sort,
+                        @Parameter(description = "Sort direction", example = "ASC") @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                        @Parameter(description = "Whether to compute the total count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+                CursorPageResponse<ProductResponse> page = productService.findAllByCursor(filter, sort, direction, size, after, includeTotal);
+                return ResponseEntity.ok(new CursorPageResponse<>(
+                                page.content().stream().map(productModelAssembler::toModel).toList(),
+                                page.nextCursor(), page.hasNext(), page.totalElements()));
+        }
+
+        @Operation(summary = "Search products by name, brand, SKU or barcode",
+                        description = "Ranked search that matches partial and slightly misspelled terms")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Paged list of matching products, best matches first")
+        })
+        @GetMapping("/search")
+        public ResponseEntity<PagedModel<EntityModel<ProductResponse>>> searchProducts(
+                        @Parameter(description = "Text to search for", example = "smartph") @RequestParam("q") String query,
+                        @Parameter(hidden = true) Pageable pageable,
+                        PagedResourcesAssembler<ProductResponse> assembler) {
+                Page<ProductResponse> products = productService.search(query, pageable);
+                return ResponseEntity.ok(assembler.toModel(products, productModelAssembler));
+        }
+
+        @Operation(summary = "Autocomplete suggestions for products and categories",
+                        description = "Served from an in-memory prefix index, without querying the database")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Suggestions returned successfully")
+        })
+        @GetMapping("/suggestions")
+        public ResponseEntity<List<SuggestionResponse>> suggestProducts(
+                        @Parameter(description = "Prefix typed by the user", example = "smar") @RequestParam("q") String query,
+                        @Parameter(description = "Maximum number of suggestions (1-20)", example = "8")
+                        @RequestParam(defaultValue = "8") int limit) {
+                int sanitizedLimit = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+                return ResponseEntity.ok(productSuggestionIndex.suggest(query, sanitizedLimit));
+        }
+
         @Operation(summary = "Create multiple products in bulk")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "207", description = "Multi-status response with results of each product creation")
@@ -88,6 +148,49 @@ public class ProductController {
                 }
         }
 
+        @PostMapping(value = "/import/jobs", consumes = "multipart/form-data")
+        @Operation(summary = "Start an asynchronous import of products from a CSV or Excel file")
+        @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('WRITE')")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Import job accepted"),
+                        @ApiResponse(responseCode = "503", description = "Too many imports in progress")
+        })
+        public ResponseEntity<ImportJobResponse> startImportJob(
+                        @Parameter(description = "CSV or Excel file with products", required = true, content = @Content(mediaType = "multipart/form-data", schema = @Schema(type = "string", format = "binary"))) @RequestParam("file") MultipartFile archivo) {
+
+                try {
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(productImportJobService.submit(archivo));
+                } catch (IOException e) {
+                        return ResponseEntity.badRequest().build();
+                }
+        }
+
+        @GetMapping("/import/jobs/{jobId}")
+        @Operation(summary = "Get the progress of an import job")
+        @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('WRITE')")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Import job status returned successfully"),
+                        @ApiResponse(responseCode = "404", description = "Import job not found")
+        })
+        public ResponseEntity<ImportJobResponse> getImportJob(
+                        @Parameter(description = "ID of the import job") @PathVariable String jobId) {
+                return ResponseEntity.ok(productImportJobService.getStatus(jobId));
+        }
+
+        @GetMapping("/import/jobs/{jobId}/results")
+        @Operation(summary = "Page through the per-row results of an import job")
+        @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('WRITE')")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Paged list of row results"),
+                        @ApiResponse(responseCode = "404", description = "Import job not found")
+        })
+        public ResponseEntity<PagedModel<EntityModel<BulkItemResponse>>> getImportJobResults(
+                        @Parameter(description = "ID of the import job") @PathVariable String jobId,
+                        @Parameter(hidden = true) Pageable pageable,
+                        PagedResourcesAssembler<BulkItemResponse> assembler) {
+                return ResponseEntity.ok(assembler.toModel(productImportJobService.getResults(jobId, pageable)));
+        }
+
         @PostMapping(value = "/import/preview", consumes = "multipart/form-data")
         @Operation(summary = "Preview products from CSV or Excel file")
         @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('WRITE')")
@@ -0,0 +1,20 @@
+package org.stockify.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Page of a cursor (keyset) paginated listing")
+public record CursorPageResponse<T>(
+        @Schema(description = "Items of the page")
+        List<T> content,
+
+        @Schema(description = "Opaque token to pass as 'after' to fetch the next page; null on the last page")
+        String nextCursor,
+
+        @Schema(description = "Whether there is a next page", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Total number of matching items; only present when requested", example = "1520")
+        Long totalElements) {
+}
@@ -0,0 +1,45 @@
+package org.stockify.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.stockify.model.enums.ImportJobStatus;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Progress of an asynchronous product import")
+public record ImportJobResponse(
+        @Schema(description = "Identifier of the import job", example = "3f1c2a4e-8d7b-4a51-9e0f-6b2d7c1a9e44")
+        String jobId,
+
+        @Schema(description = "Name of the imported file", example = "products.csv")
+        String filename,
+
+        @Schema(description = "Current state of the job", example = "RUNNING")
+        ImportJobStatus status,
+
+        @Schema(description = "Rows processed so far", example = "1500")
+        int processed,
+
+        @Schema(description = "Rows created so far", example = "1400")
+        int created,
+
+        @Schema(description = "Rows skipped as duplicates so far", example = "80")
+        int skipped,
+
+        @Schema(description = "Rows rejected with errors so far", example = "20")
+        int errors,
+
+        @Schema(description = "Average processed rows per second", example = "350.5")
+        double rowsPerSecond,
+
+        @Schema(description = "When the job was submitted")
+        LocalDateTime submittedAt,
+
+        @Schema(description = "When the job started running")
+        LocalDateTime startedAt,
+
+        @Schema(description = "When the job finished")
+        LocalDateTime finishedAt,
+
+        @Schema(description = "Failure reason when the job could not finish", example = "Could not read file")
+        String failureMessage) {
+}
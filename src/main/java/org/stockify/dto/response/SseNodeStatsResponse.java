@@ -0,0 +1,29 @@
+package org.stockify.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Live SSE connection counts of one API node")
+public record SseNodeStatsResponse(
+        @Schema(description = "Identifier of the node", example = "api-7f9c4-12")
+        String nodeId,
+
+        @Schema(description = "Users with at least one open stream", example = "1250")
+        int connectedUsers,
+
+        @Schema(description = "Open streams; a user with several tabs counts once per tab", example = "1630")
+        int connections,
+
+        @Schema(description = "Events queued on the node's streams and not yet written", example = "4")
+        int queuedEvents,
+
+        @Schema(description = "When the node started")
+        Instant startedAt,
+
+        @Schema(description = "When the counts were taken")
+        Instant reportedAt,
+
+        @Schema(description = "Whether this is the node that answered the request", example = "true")
+        boolean current) {
+}
@@ -0,0 +1,15 @@
+package org.stockify.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Autocomplete suggestion for the storefront search box")
+public record SuggestionResponse(
+        @Schema(description = "Kind of the suggested item", example = "PRODUCT", allowableValues = {"PRODUCT", "CATEGORY"})
+        String type,
+
+        @Schema(description = "Identifier of the product or category", example = "42")
+        Long id,
+
+        @Schema(description = "Text to display", example = "Smartphone X")
+        String label) {
+}
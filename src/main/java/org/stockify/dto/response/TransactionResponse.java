@@ -43,6 +43,9 @@ public class TransactionResponse {
     @Schema(description = "Payment URL for pending transactions")
     String paymentLink;
 
+    @Schema(description = "Set when the payment was approved after the stock holds expired and the units were no longer available", example = "false")
+    Boolean stockShortage;
+
     @Schema(description = "Set of detailed transactions")
     Set<DetailTransactionResponse> detailTransactions;
 }
@@ -4,19 +4,28 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnDefault;
+import org.stockify.util.StringNormalizer;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_products_barcode_normalized", columnList = "barcode_normalized")
+})
+// The trigram GIN index on search_text is created in data.sql (pg_trgm operator classes cannot be declared here)
 public class ProductEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false, columnDefinition = "bigint default nextval('products_seq')")
     private Long id;
 
     @Column(name = "name", unique = true, nullable = false)
@@ -44,6 +53,19 @@ public class ProductEntity {
     @Column(name = "barcode", unique = true)
     private String barcode;
 
+    @Column(name = "name_normalized")
+    private String nameNormalized;
+
+    @Column(name = "barcode_normalized")
+    private String barcodeNormalized;
+
+    /**
+     * Normalized name, brand, SKU and barcode, served by a trigram index for ranked
+     * "contains" and typo-tolerant searches.
+     */
+    @Column(name = "search_text", length = Integer.MAX_VALUE)
+    private String searchText;
+
     @Column(name = "brand")
     private String brand;
 
@@ -81,6 +103,19 @@ public class ProductEntity {
     @OneToMany(mappedBy = "product", fetch = FetchType.LAZY)
     private Set<DetailTransactionEntity> detailTransactions = new HashSet<>();
 
-
+    /**
+     * Keeps the lookup columns in sync with name and barcode so duplicate checks
+     * can run as indexed equality queries instead of normalizing every row in memory,
+     * and rebuilds the search text used by the ranked product search.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizeKeys() {
+        this.nameNormalized = StringNormalizer.normalize(this.name);
+        this.barcodeNormalized = StringNormalizer.normalize(this.barcode);
+        this.searchText = StringNormalizer.normalize(Stream.of(name, brand, sku, barcode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" ")));
+    }
 }
 
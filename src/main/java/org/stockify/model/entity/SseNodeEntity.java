@@ -0,0 +1,41 @@
+package org.stockify.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Last SSE connection counts reported by a node, one row per node.
+ * <p>
+ * Every node overwrites its own row on a fixed interval; a row whose {@code reportedAt} is
+ * older than a few intervals belongs to a node that is gone.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "sse_nodes")
+public class SseNodeEntity {
+    @Id
+    @Column(name = "node_id", nullable = false, length = 128)
+    private String nodeId;
+
+    @Column(name = "connected_users", nullable = false)
+    private Integer connectedUsers;
+
+    @Column(name = "connections", nullable = false)
+    private Integer connections;
+
+    @Column(name = "queued_events", nullable = false)
+    private Integer queuedEvents;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "reported_at", nullable = false)
+    private Instant reportedAt;
+}
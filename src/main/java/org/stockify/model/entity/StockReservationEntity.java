@@ -0,0 +1,67 @@
+package org.stockify.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.stockify.model.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time-boxed hold on product stock taken by a pending checkout.
+ * <p>
+ * Active holds are subtracted from the stock in the {@code product_availability} view
+ * (created in data.sql). A hold ends as COMMITTED when the payment is approved, RELEASED when
+ * the transaction is cancelled or rejected, or EXPIRED when the cleanup sweep finds it past
+ * {@code expiresAt}. Until the sweep runs, a hold past {@code expiresAt} still counts: only
+ * the status frees units, so an approval that commits the hold can never oversell.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_stock_reservations_transaction", columnList = "transaction_id"),
+        @Index(name = "idx_stock_reservations_product_status", columnList = "product_id, status")
+})
+public class StockReservationEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StockReservationEntity(Long productId, Long transactionId, Long quantity, LocalDateTime expiresAt) {
+        this.productId = productId;
+        this.transactionId = transactionId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -58,6 +58,10 @@ public class TransactionEntity {
     @Column(name = "payment_link")
     private String paymentLink;
 
+    // Aprobada despues de vencer sus reservas, sin stock para cubrirla: requiere revision manual
+    @Column(name = "stock_shortage")
+    private Boolean stockShortage;
+
     @ManyToOne
     @JoinColumn(name = "store_id")
     @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
@@ -0,0 +1,57 @@
+package org.stockify.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.stockify.model.enums.WebhookEventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Mercado Pago payment notification waiting to be processed, one row per payment.
+ * <p>
+ * Repeated notifications for the same payment are folded into the row and counted in
+ * {@code notifications}; the worker that processes it fetches the payment once for all of
+ * them. A notification that arrives while the row is being processed leaves it PENDING
+ * again, so the newer status is fetched too. Failed attempts are retried with backoff
+ * until {@code attempts} reaches the configured limit, then the row is left FAILED.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "mercadopago_webhook_events", indexes = {
+        @Index(name = "idx_mp_webhook_events_status_next", columnList = "status, next_attempt_at")
+})
+public class WebhookEventEntity {
+    @Id
+    @Column(name = "payment_id", nullable = false, length = 64)
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private WebhookEventStatus status = WebhookEventStatus.PENDING;
+
+    @Column(name = "notifications", nullable = false)
+    private Integer notifications;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,6 @@
+package org.stockify.model.enums;
+
+public enum FanOutMode {
+    READ,
+    WRITE
+}
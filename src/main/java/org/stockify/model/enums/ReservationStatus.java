@@ -0,0 +1,8 @@
+package org.stockify.model.enums;
+
+public enum ReservationStatus {
+    ACTIVE,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
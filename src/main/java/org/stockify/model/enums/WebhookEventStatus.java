@@ -0,0 +1,8 @@
+package org.stockify.model.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
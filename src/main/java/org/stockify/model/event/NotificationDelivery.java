@@ -0,0 +1,47 @@
+package org.stockify.model.event;
+
+import org.stockify.dto.response.NotificationResponse;
+
+import java.util.Map;
+
+/**
+ * A published notification on its way to the open SSE connections of every node.
+ * Only the audience travels with it; each node resolves it against its own connections.
+ *
+ * @param audience        who should receive it
+ * @param notification    what is sent; for {@link Audience#USERS} its id is replaced per user
+ * @param userId          the target user, for {@link Audience#USER}
+ * @param productId       the product whose wishlisters receive it, for {@link Audience#PRODUCT_SUBSCRIBERS}
+ * @param notificationIds the notification id of each target user, for {@link Audience#USERS}
+ */
+public record NotificationDelivery(
+        Audience audience,
+        NotificationResponse notification,
+        Long userId,
+        Long productId,
+        Map<Long, Long> notificationIds
+) {
+
+    public enum Audience {
+        USER,
+        USERS,
+        PRODUCT_SUBSCRIBERS,
+        EVERYONE
+    }
+
+    public static NotificationDelivery toUser(Long userId, NotificationResponse notification) {
+        return new NotificationDelivery(Audience.USER, notification, userId, null, null);
+    }
+
+    public static NotificationDelivery toUsers(Map<Long, Long> notificationIds, NotificationResponse notification) {
+        return new NotificationDelivery(Audience.USERS, notification, null, null, notificationIds);
+    }
+
+    public static NotificationDelivery toProductSubscribers(Long productId, NotificationResponse notification) {
+        return new NotificationDelivery(Audience.PRODUCT_SUBSCRIBERS, notification, null, productId, null);
+    }
+
+    public static NotificationDelivery toEveryone(NotificationResponse notification) {
+        return new NotificationDelivery(Audience.EVERYONE, notification, null, null, null);
+    }
+}
@@ -0,0 +1,6 @@
+package org.stockify.model.event;
+
+import java.util.Collection;
+
+public record ProductCatalogChangedEvent(Collection<Long> productIds, boolean categoriesChanged) {
+}
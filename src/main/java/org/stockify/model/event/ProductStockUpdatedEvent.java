@@ -1,3 +1,6 @@
 package org.stockify.model.event;
 
-public record ProductStockUpdatedEvent (Long productId,String productName,Long oldStock ,Long newStock){}
\ No newline at end of file
+/**
+ * The real stock of a product changed. Stock held by pending checkouts is not reflected here.
+ */
+public record ProductStockUpdatedEvent (Long productId,String productName,Long oldStock ,Long newStock){}
@@ -0,0 +1,4 @@
+package org.stockify.model.event;
+
+public record StoreConfigChangedEvent(Long storeId) {
+}
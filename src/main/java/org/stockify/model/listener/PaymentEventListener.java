@@ -19,7 +19,7 @@ public class PaymentEventListener {
 
     private final NotificationService notificationService;
 
-    @Async
+    @Async("paymentEventExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handlePaymentStatusUpdate(PaymentStatusUpdatedEvent event) {
         Long userId = event.userId();
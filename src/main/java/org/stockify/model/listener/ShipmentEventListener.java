@@ -7,7 +7,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.stockify.dto.request.notifications.NotificationRequest;
-import org.stockify.model.entity.ShipmentEntity;
 import org.stockify.model.enums.NotificationType;
 import org.stockify.model.event.ShipmentStateUpdatedEvent;
 import org.stockify.model.repository.ShipmentRepository;
@@ -21,13 +20,13 @@ public class ShipmentEventListener {
     private final NotificationService notificationService;
     private final ShipmentRepository shipmentRepository;
 
-    @Async
+    @Async("shipmentEventExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleShipmentStateUpdate(ShipmentStateUpdatedEvent event) {
         boolean isPickup = false;
         if (event.shipmentId() != null) {
-            isPickup = shipmentRepository.findById(event.shipmentId())
-                    .map(ShipmentEntity::getPickup)
+            isPickup = shipmentRepository.findLinksByShipmentId(event.shipmentId())
+                    .map(links -> Boolean.TRUE.equals(links.getPickup()))
                     .orElse(false);
         }
 
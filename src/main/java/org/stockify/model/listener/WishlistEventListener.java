@@ -1,34 +1,88 @@
 package org.stockify.model.listener;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.stockify.dto.request.notifications.NotificationRequest;
+import org.stockify.model.enums.FanOutMode;
 import org.stockify.model.enums.NotificationType;
 import org.stockify.model.event.ProductDiscountUpdatedEvent;
 import org.stockify.model.event.ProductStockUpdatedEvent;
 import org.stockify.model.repository.WishlistRepository;
 import org.stockify.model.service.NotificationService;
+import org.stockify.util.EventCoalescer;
 
+/**
+ * Notifies the users who have a product in their wishlist when it comes back in stock, is
+ * running out, or gets a discount.
+ * <p>
+ * Stock and discount changes are coalesced per product for {@code events.dispatch.coalesce-ms}:
+ * a burst of sales or a bulk price update produces one notification per product, computed from
+ * the stock or discount before the first change and after the last one. The notifications are
+ * then sent on the {@code wishlistEventExecutor}.
+ * </p>
+ * <p>
+ * With {@code notifications.product-alert.fan-out=READ} (the default) a single alert is stored
+ * per product event and each user's notification query resolves it through their wishlist.
+ * {@code WRITE} stores one row per subscriber instead.
+ * </p>
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class WishlistEventListener {
 
     private final WishlistRepository wishlistRepository;
     private final NotificationService notificationService;
+    private final EventCoalescer<Long, ProductStockUpdatedEvent> stockUpdates;
+    private final EventCoalescer<Long, ProductDiscountUpdatedEvent> discountUpdates;
+    private final FanOutMode fanOutMode;
 
     private static final int LOW_STOCK_THRESHOLD = 5;
 
-    @Async
+    public WishlistEventListener(WishlistRepository wishlistRepository,
+                                 NotificationService notificationService,
+                                 @Qualifier("wishlistEventExecutor") Executor wishlistEventExecutor,
+                                 @Qualifier("eventCoalescingTimer") ScheduledExecutorService eventCoalescingTimer,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${events.dispatch.coalesce-ms:2000}") long coalesceMillis,
+                                 @Value("${notifications.product-alert.fan-out:READ}") FanOutMode fanOutMode) {
+        this.wishlistRepository = wishlistRepository;
+        this.notificationService = notificationService;
+        this.fanOutMode = fanOutMode;
+        Duration window = Duration.ofMillis(coalesceMillis);
+        this.stockUpdates = new EventCoalescer<>("wishlist-stock", window,
+                (first, last) -> new ProductStockUpdatedEvent(
+                        last.productId(), last.productName(), first.oldStock(), last.newStock()),
+                this::notifyStockChange, wishlistEventExecutor, eventCoalescingTimer, meterRegistry);
+        this.discountUpdates = new EventCoalescer<>("wishlist-discount", window,
+                (first, last) -> new ProductDiscountUpdatedEvent(
+                        last.productId(), last.productName(), first.oldDiscount(), last.discount()),
+                this::notifyDiscount, wishlistEventExecutor, eventCoalescingTimer, meterRegistry);
+    }
+
     @TransactionalEventListener(
             phase = TransactionPhase.AFTER_COMMIT,
             fallbackExecution = true)
     public void handleStockUpdate(ProductStockUpdatedEvent event) {
+        stockUpdates.submit(event.productId(), event);
+    }
+
+    @TransactionalEventListener(
+            phase = TransactionPhase.AFTER_COMMIT,
+            fallbackExecution = true)
+    public void handleProductDiscountUpdate(ProductDiscountUpdatedEvent event) {
+        discountUpdates.submit(event.productId(), event);
+    }
+
+    private void notifyStockChange(ProductStockUpdatedEvent event) {
         long oldStock = event.oldStock() == null ? 0L : event.oldStock();
         long newStock = event.newStock() == null ? 0L : event.newStock();
 
@@ -50,11 +104,7 @@ public class WishlistEventListener {
         }
     }
 
-    @Async
-    @TransactionalEventListener(
-            phase = TransactionPhase.AFTER_COMMIT,
-            fallbackExecution = true)
-    public void handleProductDiscountUpdate(ProductDiscountUpdatedEvent event) {
+    private void notifyDiscount(ProductDiscountUpdatedEvent event) {
         if (event.discount() != null && event.discount().doubleValue() > 0) {
             notifySubscribers(event.productId(),
                     "Oportunidad!",
@@ -64,22 +114,24 @@ public class WishlistEventListener {
     }
 
     private void notifySubscribers(Long productId, String title, String message, String icon) {
+        NotificationRequest.NotificationRequestBuilder request = NotificationRequest.builder()
+                .type(NotificationType.PRODUCT_ALERT)
+                .title(title)
+                .message(message)
+                .icon(icon)
+                .relatedProductId(productId);
+
+        if (fanOutMode == FanOutMode.READ) {
+            if (!wishlistRepository.hasSubscribers(productId)) return;
+            log.info("WishlistListener: Publicando alerta del producto {}. Evento: {}", productId, title);
+            notificationService.createNotification(request.build());
+            return;
+        }
+
         List<Long> userIds = wishlistRepository.findUserIdsByProductId(productId);
         if (userIds.isEmpty()) return;
 
         log.info("WishlistListener: Notificando a {} usuarios. Evento: {}", userIds.size(), title);
-
-        userIds.forEach(userId -> {
-            NotificationRequest request = NotificationRequest.builder()
-                    .type(NotificationType.PRODUCT_ALERT)
-                    .title(title)
-                    .message(message)
-                    .icon(icon)
-                    .targetUserId(userId)
-                    .relatedProductId(productId)
-                    .build();
-
-            notificationService.createNotification(request);
-        });
+        notificationService.createNotifications(request.build(), userIds);
     }
 }
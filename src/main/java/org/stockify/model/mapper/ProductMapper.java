@@ -26,6 +26,14 @@ public interface ProductMapper {
     @Mapping(target = "priceWithDiscount", source = "entity", qualifiedByName = "discountPrice")
     ProductResponse toResponse(ProductEntity entity);
 
+    /**
+     * Maps a product whose associations were loaded separately, without touching its lazy collections.
+     */
+    @Mapping(target = "categories", source = "categoryNames")
+    @Mapping(target = "providers", source = "providerIds")
+    @Mapping(target = "priceWithDiscount", source = "entity", qualifiedByName = "discountPrice")
+    ProductResponse toResponse(ProductEntity entity, Set<String> categoryNames, Set<Long> providerIds);
+
     @Mapping(target = "priceWithDiscount", source = "entity", qualifiedByName = "discountPrice")
     ProductResponseTransaction toTransactionProduct(ProductEntity entity);
 
@@ -20,9 +20,11 @@ public interface TransactionMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateTime", ignore = true)
     @Mapping(target = "idempotencyKey", ignore = true)
+    @Mapping(target = "stockShortage", ignore = true)
     TransactionEntity toEntity(TransactionRequest transactionRequest);
 
     @Mapping(target = "idempotencyKey", ignore = true)
+    @Mapping(target = "stockShortage", ignore = true)
     TransactionEntity toEntity(TransactionCreatedRequest transactionCreatedRequest);
 
     @Mapping(target = "storeName", source = "store.storeName")
@@ -37,6 +39,7 @@ public interface TransactionMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dateTime", ignore = true)
     @Mapping(target = "idempotencyKey", ignore = true)
+    @Mapping(target = "stockShortage", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     TransactionEntity partialUpdate(TransactionRequest transactionRequest, @MappingTarget TransactionEntity transactionEntity);
 }
@@ -0,0 +1,7 @@
+package org.stockify.model.projections;
+
+public interface ClaimedWebhookEvent {
+    String getPaymentId();
+    Integer getNotifications();
+    Integer getAttempts();
+}
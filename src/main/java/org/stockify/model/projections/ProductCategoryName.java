@@ -0,0 +1,6 @@
+package org.stockify.model.projections;
+
+public interface ProductCategoryName {
+    Long getProductId();
+    String getName();
+}
@@ -0,0 +1,7 @@
+package org.stockify.model.projections;
+
+public interface ProductKeySummary {
+    String getName();
+    String getSku();
+    String getBarcode();
+}
@@ -0,0 +1,6 @@
+package org.stockify.model.projections;
+
+public interface ProductProviderId {
+    Long getProductId();
+    Long getProviderId();
+}
@@ -0,0 +1,8 @@
+package org.stockify.model.projections;
+
+public interface ProductSuggestionRow {
+    Long getId();
+    String getName();
+    Boolean getDeleted();
+    Boolean getInactive();
+}
@@ -0,0 +1,6 @@
+package org.stockify.model.projections;
+
+public interface ReservedQuantity {
+    Long getProductId();
+    Long getQuantity();
+}
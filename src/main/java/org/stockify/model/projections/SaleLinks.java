@@ -0,0 +1,11 @@
+package org.stockify.model.projections;
+
+/**
+ * Ids linked to a sale, read in one query for notifications and payment updates.
+ */
+public interface SaleLinks {
+    Long getSaleId();
+    Long getUserId();
+    Long getShipmentId();
+    Boolean getPickup();
+}
@@ -6,11 +6,15 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.stockify.model.entity.CategoryEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<CategoryEntity,Integer> {
 
     Optional<CategoryEntity> findByName(String categoryName);
 
+    List<CategoryEntity> findAllByNameIn(Collection<String> names);
+
     Page<CategoryEntity> findAll(Specification<CategoryEntity> spec, Pageable pageable);
 }
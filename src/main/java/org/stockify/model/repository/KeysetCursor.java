@@ -0,0 +1,47 @@
+package org.stockify.model.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row returned by a keyset page: the sort property, its direction,
+ * the row's id and its sort value ({@code null} when the column was null).
+ * <p>
+ * Clients only see it as an opaque URL-safe token.
+ * </p>
+ */
+public record KeysetCursor(String property, Sort.Direction direction, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+
+    public String encode() {
+        // the value goes last so it may contain the separator
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR
+                + (value == null ? NULL_VALUE : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws ResponseStatusException with 400 if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            String value = NULL_VALUE.equals(parts[3]) ? null : parts[3].substring(1);
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), value);
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.stockify.model.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset query: the ids in page order, the cursor of the next page
+ * ({@code null} on the last page) and the total, when it was requested.
+ */
+public record KeysetPage(List<Long> ids, String nextCursor, Long totalElements) {
+}
@@ -0,0 +1,169 @@
+package org.stockify.model.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination over any entity with a {@code Long id}.
+ * <p>
+ * Instead of an offset, each page continues after the {@code (sortValue, id)} pair of the
+ * previous page's last row, so deep pages cost the same as the first one. Only the ids and
+ * the sort value are selected; callers hydrate the entities with the fetch plan they need.
+ * Null sort values follow PostgreSQL's default ordering (last when ascending, first when
+ * descending). The total count is optional, since it is usually the most expensive part.
+ * </p>
+ */
+@Component
+public class KeysetPager {
+
+    private static final String ID = "id";
+    private static final int MAX_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns the ids of the next page.
+     *
+     * @param type         the entity class
+     * @param spec         the filters, may be {@code null}
+     * @param property     the sort property; {@code id} is always used as tie-breaker
+     * @param direction    the sort direction, applied to both the property and the id
+     * @param size         the page size, clamped to 1..{@value #MAX_SIZE}
+     * @param after        the cursor returned with the previous page, {@code null} for the first page
+     * @param includeTotal whether to also run the count query
+     * @throws ResponseStatusException with 400 if the cursor does not match the requested sort
+     */
+    public <T> KeysetPage findIds(Class<T> type, Specification<T> spec, String property, Sort.Direction direction,
+                                  int size, String after, boolean includeTotal) {
+        size = Math.min(Math.max(size, 1), MAX_SIZE);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Path<Long> id = root.get(ID);
+        Path<Object> sortPath = root.get(property);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate filter = spec.toPredicate(root, query, cb);
+            if (filter != null) {
+                predicates.add(filter);
+            }
+        }
+        if (after != null && !after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            if (!cursor.property().equals(property) || cursor.direction() != direction) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cursor was issued for a different sort order");
+            }
+            predicates.add(afterPredicate(cb, sortPath, id, direction, cursor));
+        }
+
+        query.multiselect(id, sortPath).where(predicates.toArray(Predicate[]::new));
+        if (ID.equals(property)) {
+            query.orderBy(direction.isAscending() ? cb.asc(id) : cb.desc(id));
+        } else {
+            query.orderBy(
+                    direction.isAscending() ? cb.asc(sortPath) : cb.desc(sortPath),
+                    direction.isAscending() ? cb.asc(id) : cb.desc(id));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        List<Long> ids = rows.stream().map(row -> row.get(0, Long.class)).toList();
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = rows.get(rows.size() - 1);
+            Object value = last.get(1);
+            nextCursor = new KeysetCursor(property, direction, last.get(0, Long.class),
+                    value == null ? null : toCursorValue(value)).encode();
+        }
+
+        Long total = includeTotal ? count(type, spec) : null;
+        return new KeysetPage(ids, nextCursor, total);
+    }
+
+    private <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        if (spec != null) {
+            Predicate filter = spec.toPredicate(root, query, cb);
+            if (filter != null) {
+                query.where(filter);
+            }
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate afterPredicate(CriteriaBuilder cb, Path<Object> sortPath, Path<Long> id,
+                                     Sort.Direction direction, KeysetCursor cursor) {
+        boolean asc = direction.isAscending();
+        Predicate idAfter = asc ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        if (ID.equals(cursor.property())) {
+            return idAfter;
+        }
+
+        if (cursor.value() == null) {
+            // nulls sort last when ascending and first when descending
+            Predicate sameNullGroup = cb.and(cb.isNull(sortPath), idAfter);
+            return asc ? sameNullGroup : cb.or(sameNullGroup, cb.isNotNull(sortPath));
+        }
+
+        Comparable value = fromCursorValue(sortPath.getJavaType(), cursor.value());
+        Expression<Comparable> path = (Expression) sortPath;
+        Predicate beyond = asc ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+        Predicate tie = cb.and(cb.equal(path, value), idAfter);
+        Predicate next = cb.or(beyond, tie);
+        return asc ? cb.or(next, cb.isNull(sortPath)) : next;
+    }
+
+    private static String toCursorValue(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable fromCursorValue(Class<?> type, String value) {
+        try {
+            if (type == String.class) return value;
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == Double.class || type == double.class) return Double.valueOf(value);
+            if (type == BigDecimal.class) return new BigDecimal(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == Instant.class) return Instant.parse(value);
+            if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pagination cursor");
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Sorting by " + type.getSimpleName() + " is not supported with cursors");
+    }
+}
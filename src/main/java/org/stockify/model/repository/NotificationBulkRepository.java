@@ -0,0 +1,85 @@
+package org.stockify.model.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.stockify.model.entity.NotificationEntity;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates the same notification for many users with one multi-row insert.
+ * <p>
+ * The target ids are sent as a single array parameter and joined against {@code users}, so
+ * ids of users that no longer exist are skipped by the statement itself instead of being
+ * checked one by one.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBulkRepository {
+
+    private static final String INSERT_FOR_USERS_SQL = """
+            INSERT INTO notifications (type, status, created_at, publish_at, expires_at, title, message, icon,
+                                       target_user_id, related_product_id, related_sale_id)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, u.id, ?, ?
+            FROM users u
+            WHERE u.id = ANY (?)
+            RETURNING id, target_user_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record InsertedNotification(Long id, Long userId) {
+    }
+
+    /**
+     * Inserts a copy of {@code template} for every existing user in {@code userIds}. The id and
+     * target user of the template are ignored.
+     *
+     * @return the id of the notification created for each user
+     */
+    public List<InsertedNotification> insertForUsers(NotificationEntity template, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_FOR_USERS_SQL);
+            ps.setString(1, template.getType() != null ? template.getType().name() : null);
+            ps.setString(2, template.getStatus().name());
+            setInstant(ps, 3, template.getCreatedAt());
+            setInstant(ps, 4, template.getPublishAt());
+            setInstant(ps, 5, template.getExpiresAt());
+            ps.setString(6, template.getTitle());
+            ps.setString(7, template.getMessage());
+            ps.setString(8, template.getIcon());
+            setLong(ps, 9, template.getRelatedProductId());
+            setLong(ps, 10, template.getRelatedSaleId());
+            ps.setArray(11, connection.createArrayOf("bigint", userIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new InsertedNotification(rs.getLong("id"), rs.getLong("target_user_id")));
+    }
+
+    private static void setInstant(PreparedStatement ps, int index, Instant value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            ps.setObject(index, OffsetDateTime.ofInstant(value, ZoneOffset.UTC));
+        }
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
@@ -38,7 +38,9 @@ public interface NotificationRepository extends JpaRepository<NotificationEntity
             (
                 (n.type = 'PERSONAL' AND n.targetUserId = :userId)
                 OR (n.type = 'GLOBAL')
-                OR (n.type = 'PRODUCT_ALERT' AND wp.id IS NOT NULL)
+                OR (n.type = 'PRODUCT_ALERT' AND wp.id IS NOT NULL
+                    AND (n.targetUserId = :userId
+                         OR (n.targetUserId IS NULL AND n.createdAt >= wp.createdAt)))
             )
             AND n.status = 'PUBLISHED'
             AND (n.publishAt IS NULL OR n.publishAt <= CURRENT_TIMESTAMP)
@@ -8,7 +8,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.stockify.model.entity.CategoryEntity;
 import org.stockify.model.entity.ProductEntity;
+import org.stockify.model.projections.ProductCategoryName;
+import org.stockify.model.projections.ProductKeySummary;
+import org.stockify.model.projections.ProductProviderId;
+import org.stockify.model.projections.ProductSuggestionRow;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,4 +34,101 @@ public interface ProductRepository extends JpaRepository<ProductEntity,Long>, Jp
     boolean existsBySku(String sku);
 
     boolean existsByBarcode(String barcode);
+
+    /**
+     * Finds soft-deleted products whose normalized name or barcode matches the given keys.
+     * Name matches are returned first.
+     */
+    @Query("""
+        SELECT p FROM ProductEntity p
+        WHERE p.deleted = true
+          AND (p.nameNormalized = :name OR p.barcodeNormalized = :barcode)
+        ORDER BY CASE WHEN p.nameNormalized = :name THEN 0 ELSE 1 END, p.id
+    """)
+    List<ProductEntity> findDeletedByNormalizedNameOrBarcode(@Param("name") String normalizedName,
+                                                            @Param("barcode") String normalizedBarcode);
+
+    /**
+     * Loads every product (deleted or not) whose normalized name or barcode is in the given key sets.
+     */
+    @Query("""
+        SELECT p FROM ProductEntity p
+        WHERE p.nameNormalized IN :names OR p.barcodeNormalized IN :barcodes
+    """)
+    List<ProductEntity> findAllByNormalizedNamesOrBarcodes(@Param("names") Collection<String> normalizedNames,
+                                                          @Param("barcodes") Collection<String> normalizedBarcodes);
+
+    /**
+     * Loads every product (deleted or not) whose normalized name is in the given key set.
+     */
+    List<ProductEntity> findAllByNameNormalizedIn(Collection<String> normalizedNames);
+
+    /**
+     * Returns the unique keys of every product (deleted or not) whose name, SKU or barcode
+     * is among the given values.
+     */
+    @Query("""
+        SELECT p.name AS name, p.sku AS sku, p.barcode AS barcode FROM ProductEntity p
+        WHERE p.name IN :names OR p.sku IN :skus OR p.barcode IN :barcodes
+    """)
+    List<ProductKeySummary> findKeysByNamesOrSkusOrBarcodes(@Param("names") Collection<String> names,
+                                                           @Param("skus") Collection<String> skus,
+                                                           @Param("barcodes") Collection<String> barcodes);
+
+    /**
+     * Loads the category names of a page of products in a single query.
+     */
+    @Query("""
+        SELECT p.id AS productId, c.name AS name FROM ProductEntity p
+        JOIN p.categories c
+        WHERE p.id IN :ids
+        ORDER BY c.name
+    """)
+    List<ProductCategoryName> findCategoryNamesByProductIds(@Param("ids") Collection<Long> productIds);
+
+    /**
+     * Loads the provider ids of a page of products in a single query.
+     */
+    @Query("""
+        SELECT p.id AS productId, pr.id AS providerId FROM ProductEntity p
+        JOIN p.providers pr
+        WHERE p.id IN :ids
+        ORDER BY pr.id
+    """)
+    List<ProductProviderId> findProviderIdsByProductIds(@Param("ids") Collection<Long> productIds);
+
+    /**
+     * Ranked search over the trigram-indexed search text. Matches rows that contain the
+     * pattern or whose words are similar enough to the query (typo tolerant), ranking
+     * name prefix matches first and then by word similarity.
+     *
+     * @param query    the normalized search term
+     * @param contains the escaped {@code %term%} pattern
+     * @param prefix   the escaped {@code term%} pattern
+     */
+    @Query(value = """
+        SELECT p.* FROM products p
+        WHERE p.deleted = false
+          AND (p.search_text LIKE :contains OR :query <% p.search_text)
+        ORDER BY (p.name_normalized LIKE :prefix) DESC,
+                 word_similarity(:query, p.search_text) DESC,
+                 p.name
+    """, countQuery = """
+        SELECT count(*) FROM products p
+        WHERE p.deleted = false
+          AND (p.search_text LIKE :contains OR :query <% p.search_text)
+    """, nativeQuery = true)
+    Page<ProductEntity> searchRanked(@Param("query") String query,
+                                     @Param("contains") String contains,
+                                     @Param("prefix") String prefix,
+                                     Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.deleted AS deleted, p.inactive AS inactive FROM ProductEntity p")
+    List<ProductSuggestionRow> findAllSuggestionRows();
+
+    @Query("""
+        SELECT p.id AS id, p.name AS name, p.deleted AS deleted, p.inactive AS inactive FROM ProductEntity p
+        WHERE p.id IN :ids
+    """)
+    List<ProductSuggestionRow> findSuggestionRowsByIds(@Param("ids") Collection<Long> ids);
 }
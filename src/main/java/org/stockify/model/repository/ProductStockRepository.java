@@ -0,0 +1,162 @@
+package org.stockify.model.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional, set-based stock updates issued as JDBC batches.
+ * <p>
+ * Each statement updates one product row and the batch returns one update count per line,
+ * so a zero count tells exactly which line could not be applied. Statements run in the
+ * order given, which lets callers lock rows in a deterministic order.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private static final String DECREMENT_SQL = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - ?,
+                sold_quantity = COALESCE(sold_quantity, 0) + ?
+            WHERE id = ?
+              AND stock_quantity - COALESCE((
+                    SELECT SUM(r.quantity) FROM stock_reservations r
+                    WHERE r.product_id = products.id AND r.status = 'ACTIVE'
+                  ), 0) >= ?
+            """;
+
+    private static final String COMMIT_SQL = """
+            UPDATE products
+            SET stock_quantity = COALESCE(stock_quantity, 0) - ?,
+                sold_quantity = COALESCE(sold_quantity, 0) + ?
+            WHERE id = ?
+            """;
+
+    private static final String INCREMENT_SQL = """
+            UPDATE products
+            SET stock_quantity = COALESCE(stock_quantity, 0) + ?
+            WHERE id = ?
+            """;
+
+    private static final String RESTORE_SQL = """
+            UPDATE products
+            SET stock_quantity = COALESCE(stock_quantity, 0) + ?,
+                sold_quantity = GREATEST(0, COALESCE(sold_quantity, 0) - ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record StockLine(Long productId, long quantity) {
+    }
+
+    public record StockLevel(Long productId, String productName, long stock, long available) {
+    }
+
+    /**
+     * Locks the product rows in ascending id order until the end of the transaction.
+     * Statements issued afterwards see every hold committed by earlier lock holders.
+     *
+     * @return the ids that exist
+     */
+    public List<Long> lock(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("ids", productIds),
+                Long.class);
+    }
+
+    /**
+     * Takes {@code quantity} units out of stock and adds them to the sold quantity, only
+     * where enough stock is available once the active holds of other checkouts are subtracted.
+     *
+     * @return the update count of each line, {@code 0} when the line was not applied
+     */
+    public int[] decrement(List<StockLine> lines) {
+        return batch(DECREMENT_SQL, lines, (ps, line) -> {
+            ps.setLong(1, line.quantity());
+            ps.setLong(2, line.quantity());
+            ps.setLong(3, line.productId());
+            ps.setLong(4, line.quantity());
+        });
+    }
+
+    /**
+     * Turns held units into a sale: takes them out of stock and adds them to the sold quantity.
+     * Availability was already checked when the hold was taken, and an active hold keeps its
+     * units out of availability until it is committed, released or expired by the sweep.
+     */
+    public int[] commit(List<StockLine> lines) {
+        return batch(COMMIT_SQL, lines, (ps, line) -> {
+            ps.setLong(1, line.quantity());
+            ps.setLong(2, line.quantity());
+            ps.setLong(3, line.productId());
+        });
+    }
+
+    /**
+     * Adds {@code quantity} units to stock.
+     *
+     * @return the update count of each line, {@code 0} when the product does not exist
+     */
+    public int[] increment(List<StockLine> lines) {
+        return batch(INCREMENT_SQL, lines, (ps, line) -> {
+            ps.setLong(1, line.quantity());
+            ps.setLong(2, line.productId());
+        });
+    }
+
+    /**
+     * Undoes a sale: puts the units back in stock and takes them out of the sold quantity.
+     *
+     * @return the update count of each line, {@code 0} when the product does not exist
+     */
+    public int[] restore(List<StockLine> lines) {
+        return batch(RESTORE_SQL, lines, (ps, line) -> {
+            ps.setLong(1, line.quantity());
+            ps.setLong(2, line.quantity());
+            ps.setLong(3, line.productId());
+        });
+    }
+
+    private int[] batch(String sql, List<StockLine> lines, ParameterizedPreparedStatementSetter<StockLine> setter) {
+        if (lines.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, lines, lines.size(), setter)[0];
+    }
+
+    /**
+     * Reads the stock and the availability (stock minus active holds) of the given products.
+     */
+    public Map<Long, StockLevel> findLevels(Collection<Long> productIds) {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return levels;
+        }
+        namedJdbcTemplate.query(
+                "SELECT product_id, name, stock, available FROM product_availability WHERE product_id IN (:ids)",
+                new MapSqlParameterSource("ids", productIds),
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong("product_id");
+                    levels.put(id, new StockLevel(id, rs.getString("name"), rs.getLong("stock"),
+                            rs.getLong("available")));
+                });
+        return levels;
+    }
+}
@@ -9,14 +9,15 @@ import org.springframework.stereotype.Repository;
 import org.stockify.model.entity.SaleEntity;
 import org.stockify.model.enums.PaymentStatus;
 import org.stockify.model.enums.TransactionType;
+import org.stockify.model.projections.SaleLinks;
 
-import org.springframework.data.jpa.domain.Specification;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 
 @Repository
-public interface SaleRepository extends JpaRepository<SaleEntity, Long>, JpaSpecificationExecutor<SaleEntity> {
+public interface SaleRepository extends JpaRepository<SaleEntity, Long>, JpaSpecificationExecutor<SaleEntity>,
+                SaleRepositoryCustom {
 
         @EntityGraph(attributePaths = {
                         "transaction",
@@ -29,16 +30,6 @@ public interface SaleRepository extends JpaRepository<SaleEntity, Long>, JpaSpec
                         PaymentStatus paymentStatus,
                         TransactionType type);
 
-        @Override
-        @EntityGraph(attributePaths = {
-                        "transaction",
-                        "transaction.paymentDetail",
-                        "transaction.detailTransactions",
-                        "transaction.detailTransactions.product",
-                        "user"
-        })
-        Page<SaleEntity> findAll(Pageable pageable);
-
         @Override
         @EntityGraph(attributePaths = {
                         "transaction",
@@ -56,8 +47,11 @@ public interface SaleRepository extends JpaRepository<SaleEntity, Long>, JpaSpec
                         "transaction.detailTransactions.product",
                         "user"
         })
-        Page<SaleEntity> findAll(Specification<SaleEntity> spec, Pageable pageable);
+        Optional<SaleEntity> findByIdAndUserId(Long id, Long userId);
 
+        /**
+         * Hydrates a page of sales with the graph needed to build {@code SaleResponse}.
+         */
         @EntityGraph(attributePaths = {
                         "transaction",
                         "transaction.paymentDetail",
@@ -65,11 +59,14 @@ public interface SaleRepository extends JpaRepository<SaleEntity, Long>, JpaSpec
                         "transaction.detailTransactions.product",
                         "user"
         })
-        Optional<SaleEntity> findByIdAndUserId(Long id, Long userId);
-
-        @Query("SELECT s.user.id FROM SaleEntity s WHERE s.transaction.id = :transactionId")
-        Optional<Long> findUserIdByTransactionId(@Param("transactionId") Long transactionId);
+        List<SaleEntity> findAllByIdIn(Collection<Long> ids);
 
-        @Query("SELECT s.id FROM SaleEntity s WHERE s.transaction.id = :transactionId")
-        Optional<Long> findSaleIdByTransactionId(@Param("transactionId") Long transactionId);
+        @Query("""
+                        SELECT s.id AS saleId, u.id AS userId, sh.id AS shipmentId, sh.pickup AS pickup
+                        FROM SaleEntity s
+                        LEFT JOIN s.user u
+                        LEFT JOIN s.shipment sh
+                        WHERE s.transaction.id = :transactionId
+                        """)
+        Optional<SaleLinks> findLinksByTransactionId(@Param("transactionId") Long transactionId);
 }
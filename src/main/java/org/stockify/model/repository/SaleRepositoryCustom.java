@@ -0,0 +1,15 @@
+package org.stockify.model.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.stockify.model.entity.SaleEntity;
+
+public interface SaleRepositoryCustom {
+
+    /**
+     * Pages only the ids of the sales matching the specification, so the page is cut in SQL
+     * and the associations can be fetched afterwards for just those ids.
+     */
+    Page<Long> findIds(Specification<SaleEntity> spec, Pageable pageable);
+}
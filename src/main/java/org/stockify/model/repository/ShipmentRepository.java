@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.stockify.model.entity.ShipmentEntity;
+import org.stockify.model.projections.SaleLinks;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +19,14 @@ public interface ShipmentRepository extends JpaRepository<ShipmentEntity,Long>,
 
     @Query("SELECT s.sale.id FROM ShipmentEntity s WHERE s.id = :shipmentId")
     Optional<Long> findSaleIdByShipmentId(@Param("shipmentId") Long shipmentId);
+
+    @Query("""
+            SELECT s.id AS saleId, u.id AS userId, sh.id AS shipmentId, sh.pickup AS pickup
+            FROM ShipmentEntity sh
+            JOIN sh.sale s
+            LEFT JOIN s.user u
+            WHERE sh.id = :shipmentId
+            """)
+    Optional<SaleLinks> findLinksByShipmentId(@Param("shipmentId") Long shipmentId);
+
 }
@@ -0,0 +1,45 @@
+package org.stockify.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.stockify.model.entity.SseNodeEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SseNodeRepository extends JpaRepository<SseNodeEntity, String> {
+
+    /**
+     * Writes the current counts of a node in one statement, creating its row on the first report.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO sse_nodes (node_id, connected_users, connections, queued_events, started_at, reported_at)
+            VALUES (:nodeId, :connectedUsers, :connections, :queuedEvents, :startedAt, :reportedAt)
+            ON CONFLICT (node_id) DO UPDATE SET
+                connected_users = EXCLUDED.connected_users,
+                connections = EXCLUDED.connections,
+                queued_events = EXCLUDED.queued_events,
+                started_at = EXCLUDED.started_at,
+                reported_at = EXCLUDED.reported_at
+            """)
+    void report(@Param("nodeId") String nodeId,
+                @Param("connectedUsers") int connectedUsers,
+                @Param("connections") int connections,
+                @Param("queuedEvents") int queuedEvents,
+                @Param("startedAt") Instant startedAt,
+                @Param("reportedAt") Instant reportedAt);
+
+    List<SseNodeEntity> findAllByReportedAtAfterOrderByNodeId(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SseNodeEntity n WHERE n.reportedAt < :before")
+    int deleteStale(@Param("before") Instant before);
+}
@@ -0,0 +1,68 @@
+package org.stockify.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.stockify.model.entity.StockReservationEntity;
+import org.stockify.model.enums.ReservationStatus;
+import org.stockify.model.projections.ReservedQuantity;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservationEntity, Long> {
+
+    boolean existsByTransactionIdAndStatusIn(Long transactionId, Collection<ReservationStatus> statuses);
+
+    /**
+     * Moves the holds of a transaction from one status to another and returns the moved
+     * quantities per product, ordered by product id. The status change and the read happen
+     * in the same statement, so concurrent callers never move the same hold twice.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH moved AS (
+                UPDATE stock_reservations
+                SET status = :to
+                WHERE transaction_id = :transactionId AND status = :from
+                RETURNING product_id, quantity
+            )
+            SELECT product_id AS "productId", SUM(quantity) AS "quantity"
+            FROM moved
+            GROUP BY product_id
+            ORDER BY product_id
+            """)
+    List<ReservedQuantity> transition(@Param("transactionId") Long transactionId,
+                                      @Param("from") String from,
+                                      @Param("to") String to);
+
+    /**
+     * Claims up to {@code limit} transactions with active holds past their expiry and marks
+     * all their active holds as EXPIRED, in one statement.
+     * <p>
+     * The transaction rows are locked with {@code FOR UPDATE SKIP LOCKED}: rows already claimed
+     * by another node, or being updated by a payment webhook, are skipped instead of waited on,
+     * so several sweepers can run at once without overlapping.
+     * </p>
+     *
+     * @return the ids of the claimed transactions
+     */
+    @Query(nativeQuery = true, value = """
+            WITH claimed AS (
+                SELECT t.id
+                FROM transactions t
+                WHERE t.id IN (SELECT r.transaction_id FROM stock_reservations r
+                               WHERE r.status = 'ACTIVE' AND r.expires_at <= LOCALTIMESTAMP)
+                ORDER BY t.id
+                LIMIT :limit
+                FOR UPDATE OF t SKIP LOCKED
+            ), expired AS (
+                UPDATE stock_reservations r
+                SET status = 'EXPIRED'
+                FROM claimed c
+                WHERE r.transaction_id = c.id AND r.status = 'ACTIVE'
+                RETURNING r.transaction_id
+            )
+            SELECT DISTINCT transaction_id FROM expired
+            """)
+    List<Long> expireDue(@Param("limit") int limit);
+}
@@ -4,6 +4,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.stockify.model.entity.StoreEntity;
 
+import java.util.Optional;
+
 @Repository
 public interface StoreRepository extends JpaRepository<StoreEntity,Long> {
+    Optional<StoreEntity> findFirstByOrderByIdAsc();
 }
@@ -2,35 +2,51 @@ package org.stockify.model.repository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.stockify.model.entity.TransactionEntity;
 import org.stockify.model.enums.PaymentStatus;
 import org.stockify.model.enums.TransactionType;
 
 import java.util.Collection;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
-    List<TransactionEntity> findAllByPaymentStatusAndDateTimeBefore(PaymentStatus status, LocalDateTime dateTime);
+    /**
+     * The given transactions in the given status, with the associations Hibernate would
+     * otherwise load one by one (the sale, its user and shipment, the store and the payment
+     * detail) fetched in the same query.
+     */
+    @EntityGraph(attributePaths = {
+            "store",
+            "purchase",
+            "paymentDetail",
+            "sale",
+            "sale.user",
+            "sale.shipment"
+    })
+    List<TransactionEntity> findAllByIdInAndPaymentStatus(Collection<Long> ids, PaymentStatus paymentStatus);
+
+    /**
+     * The subset of {@code keys} already used by a transaction in the given status.
+     */
+    @Query("SELECT t.idempotencyKey FROM TransactionEntity t WHERE t.idempotencyKey IN :keys AND t.paymentStatus = :status")
+    Set<String> findIdempotencyKeysInStatus(@Param("keys") Collection<String> keys,
+                                            @Param("status") PaymentStatus status);
 
+    /**
+     * All transactions created with the idempotency key, served by the
+     * (idempotency_key, payment_status) unique index. The details and their products are
+     * fetched in the same query, since a pending transaction is reused to build the checkout.
+     */
     @EntityGraph(attributePaths = {
             "detailTransactions",
             "detailTransactions.product"
     })
-    Optional<TransactionEntity> findFirstByIdempotencyKeyAndPaymentStatusAndType(
-            String idempotencyKey,
-            PaymentStatus paymentStatus,
-            TransactionType type
-    );
-
-    boolean existsByIdempotencyKeyAndTypeAndPaymentStatusIn(
-            String idempotencyKey,
-            TransactionType type,
-            Collection<PaymentStatus> statuses
-    );
+    List<TransactionEntity> findAllByIdempotencyKeyAndType(String idempotencyKey, TransactionType type);
 
     boolean existsByIdempotencyKeyAndPaymentStatusAndTypeAndIdNot(
             String idempotencyKey,
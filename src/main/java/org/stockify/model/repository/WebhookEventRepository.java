@@ -0,0 +1,122 @@
+package org.stockify.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.stockify.model.entity.WebhookEventEntity;
+import org.stockify.model.projections.ClaimedWebhookEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookEventRepository extends JpaRepository<WebhookEventEntity, String> {
+
+    /**
+     * Records a notification for a payment in one statement.
+     * <p>
+     * A new payment gets a PENDING row due at {@code dueAt}. For a known payment the
+     * notification is counted on the existing row: a pending row keeps its earliest due time,
+     * a row being processed is left to its worker (which sees the new count when it finishes),
+     * and a finished or failed row becomes PENDING again with its attempts reset.
+     * </p>
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO mercadopago_webhook_events AS w
+                (payment_id, status, notifications, attempts, received_at, next_attempt_at)
+            VALUES (:paymentId, 'PENDING', 1, 0, :now, :dueAt)
+            ON CONFLICT (payment_id) DO UPDATE SET
+                notifications = w.notifications + 1,
+                received_at = EXCLUDED.received_at,
+                status = CASE WHEN w.status = 'PROCESSING' THEN 'PROCESSING' ELSE 'PENDING' END,
+                attempts = CASE WHEN w.status IN ('PENDING', 'PROCESSING') THEN w.attempts ELSE 0 END,
+                next_attempt_at = CASE
+                    WHEN w.status = 'PENDING' THEN LEAST(w.next_attempt_at, EXCLUDED.next_attempt_at)
+                    WHEN w.status = 'PROCESSING' THEN w.next_attempt_at
+                    ELSE EXCLUDED.next_attempt_at
+                END
+            """)
+    int enqueue(@Param("paymentId") String paymentId,
+                @Param("now") LocalDateTime now,
+                @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * Claims up to {@code limit} due rows and marks them PROCESSING, counting the attempt.
+     * Rows left PROCESSING by a worker that died before {@code staleBefore} are claimed again.
+     * Rows locked by another node are skipped, so several nodes can poll the same table.
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            WITH due AS (
+                SELECT payment_id
+                FROM mercadopago_webhook_events
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'PROCESSING' AND claimed_at <= :staleBefore)
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), claimed AS (
+                UPDATE mercadopago_webhook_events w
+                SET status = 'PROCESSING', attempts = w.attempts + 1, claimed_at = :now
+                FROM due
+                WHERE w.payment_id = due.payment_id
+                RETURNING w.payment_id, w.notifications, w.attempts
+            )
+            SELECT payment_id AS "paymentId", notifications AS "notifications", attempts AS "attempts"
+            FROM claimed
+            """)
+    List<ClaimedWebhookEvent> claimDue(@Param("limit") int limit,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Marks a processed row DONE, unless more notifications arrived while it was being
+     * processed: then it goes back to PENDING, due at {@code dueAt}, to fetch the newer status.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE mercadopago_webhook_events
+            SET status = CASE WHEN notifications = :seen THEN 'DONE' ELSE 'PENDING' END,
+                attempts = CASE WHEN notifications = :seen THEN attempts ELSE 0 END,
+                next_attempt_at = :dueAt,
+                processed_at = :now,
+                last_error = NULL
+            WHERE payment_id = :paymentId AND status = 'PROCESSING'
+            """)
+    int complete(@Param("paymentId") String paymentId,
+                 @Param("seen") int seenNotifications,
+                 @Param("now") LocalDateTime now,
+                 @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * Schedules the next attempt of a failed row, or leaves it FAILED once {@code maxAttempts}
+     * attempts have been made.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE mercadopago_webhook_events
+            SET status = CASE WHEN attempts >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                next_attempt_at = :nextAttemptAt,
+                last_error = :error
+            WHERE payment_id = :paymentId AND status = 'PROCESSING'
+            """)
+    int fail(@Param("paymentId") String paymentId,
+             @Param("maxAttempts") int maxAttempts,
+             @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+             @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM mercadopago_webhook_events
+            WHERE status = 'DONE' AND processed_at < :before
+            """)
+    int purgeDone(@Param("before") LocalDateTime before);
+}
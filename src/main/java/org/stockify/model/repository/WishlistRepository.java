@@ -1,5 +1,6 @@
 package org.stockify.model.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -17,4 +18,21 @@ public interface WishlistRepository extends JpaRepository<WishlistEntity, Long>{
         WHERE wp.product.id = :productId
     """)
     List<Long> findUserIdsByProductId(@Param("productId") Long productId);
+
+    @Query("""
+        SELECT w.user.id
+        FROM WishlistEntity w
+        JOIN w.wishlistProducts wp
+        WHERE wp.product.id = :productId
+          AND w.user.id IN :userIds
+    """)
+    List<Long> findUserIdsByProductIdAndUserIdIn(@Param("productId") Long productId,
+                                                 @Param("userIds") Collection<Long> userIds);
+
+    @Query("""
+        SELECT COUNT(wp) > 0
+        FROM WishlistProductEntity wp
+        WHERE wp.product.id = :productId
+    """)
+    boolean hasSubscribers(@Param("productId") Long productId);
 }
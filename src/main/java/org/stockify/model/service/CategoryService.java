@@ -1,6 +1,7 @@
 package org.stockify.model.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -8,11 +9,14 @@ import org.springframework.stereotype.Service;
 import org.stockify.dto.request.category.CategoryRequest;
 import org.stockify.dto.response.CategoryResponse;
 import org.stockify.model.entity.CategoryEntity;
+import org.stockify.model.event.ProductCatalogChangedEvent;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.CategoryMapper;
 import org.stockify.model.repository.CategoryRepository;
 import org.stockify.model.specification.CategorySpecification;
 
+import java.util.List;
+
 /**
  * Service class responsible for managing categories, including
  * operations such as searching, creating, updating, deleting,
@@ -24,6 +28,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves a paginated list of categories filtered optionally by name.
@@ -57,7 +62,9 @@ public class CategoryService {
      */
     public CategoryResponse save(CategoryRequest request) {
         CategoryEntity entity = categoryMapper.toEntity(request);
-        return categoryMapper.toResponse(categoryRepository.save(entity));
+        CategoryEntity saved = categoryRepository.save(entity);
+        publishCategoriesChanged();
+        return categoryMapper.toResponse(saved);
     }
 
     /**
@@ -72,6 +79,7 @@ public class CategoryService {
         category.getProducts().clear();
 
         categoryRepository.delete(category);
+        publishCategoriesChanged();
     }
 
     /**
@@ -85,7 +93,9 @@ public class CategoryService {
     public CategoryResponse update(int id, CategoryRequest request) {
         CategoryEntity existingCategory = findEntityById(id);
         CategoryEntity updatedEntity = categoryMapper.updateEntityFromRequest(request, existingCategory);
-        return categoryMapper.toResponse(categoryRepository.save(updatedEntity));
+        CategoryEntity saved = categoryRepository.save(updatedEntity);
+        publishCategoriesChanged();
+        return categoryMapper.toResponse(saved);
     }
 
     /**
@@ -99,7 +109,13 @@ public class CategoryService {
     public CategoryResponse patch(int id, CategoryRequest request) {
         CategoryEntity existingCategory = findEntityById(id);
         categoryMapper.patchEntityFromRequest(request, existingCategory);
-        return categoryMapper.toResponse(categoryRepository.save(existingCategory));
+        CategoryEntity saved = categoryRepository.save(existingCategory);
+        publishCategoriesChanged();
+        return categoryMapper.toResponse(saved);
+    }
+
+    private void publishCategoriesChanged() {
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(List.of(), true));
     }
 
     /**
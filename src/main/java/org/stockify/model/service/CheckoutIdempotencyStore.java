@@ -0,0 +1,157 @@
+package org.stockify.model.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.stockify.dto.request.sale.SaleRequest;
+import org.stockify.dto.request.transaction.DetailTransactionRequest;
+import org.stockify.model.entity.TransactionEntity;
+import org.stockify.model.enums.PaymentStatus;
+import org.stockify.model.enums.TransactionType;
+import org.stockify.model.repository.TransactionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency for online checkouts.
+ * <p>
+ * The key of a checkout is a hash of the user and the cart contents. {@link #resolve(String)}
+ * decides with a single indexed query whether a pending transaction can be reused or a new one
+ * must be created, and with which key. {@link #deduplicate(String, Supplier)} additionally
+ * shares the result of a checkout with identical requests arriving shortly after it (double
+ * clicks, client retries) without touching the database.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckoutIdempotencyStore {
+
+    private static final Set<PaymentStatus> CLOSED_STATUSES = EnumSet.of(
+            PaymentStatus.APPROVED,
+            PaymentStatus.CANCELLED,
+            PaymentStatus.REJECTED,
+            PaymentStatus.REFUNDED);
+
+    private final TransactionRepository transactionRepository;
+    private final Map<String, Recent<?>> recent = new ConcurrentHashMap<>();
+
+    @Value("${checkout.idempotency.cache-seconds:10}")
+    private long cacheSeconds;
+
+    /**
+     * How a checkout with a given key has to proceed.
+     *
+     * @param key     the idempotency key to create the transaction with
+     * @param pending the pending transaction to reuse, with its details and products loaded;
+     *                {@code null} when a new transaction must be created
+     */
+    public record Resolution(String key, TransactionEntity pending) {
+    }
+
+    private record Recent<T>(CompletableFuture<T> result, long createdAtNanos) {
+    }
+
+    /**
+     * Computes the idempotency key of a checkout: the SHA-256 of the user id and the
+     * product:quantity pairs sorted by product id.
+     */
+    public String keyFor(SaleRequest request) {
+        StringBuilder canonical = new StringBuilder(
+                request.getUserId() != null ? String.valueOf(request.getUserId()) : "anon");
+        request.getTransaction().getDetailTransactions().stream()
+                .sorted(Comparator.comparing(DetailTransactionRequest::getProductID))
+                .forEach(d -> canonical.append('|').append(d.getProductID())
+                        .append(':').append(d.getQuantity() == null ? 1 : d.getQuantity()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Looks up every sale transaction created with the key in one query and decides:
+     * <ul>
+     *     <li>if a transaction with the key was already closed, a new transaction is created
+     *     with a fresh key;</li>
+     *     <li>otherwise the pending transaction is reused, if there is one;</li>
+     *     <li>otherwise a new transaction is created with the key.</li>
+     * </ul>
+     */
+    public Resolution resolve(String key) {
+        TransactionEntity pending = null;
+        boolean closed = false;
+        for (TransactionEntity transaction : transactionRepository.findAllByIdempotencyKeyAndType(key, TransactionType.SALE)) {
+            if (transaction.getPaymentStatus() == PaymentStatus.PENDING) {
+                pending = transaction;
+            } else if (CLOSED_STATUSES.contains(transaction.getPaymentStatus())) {
+                closed = true;
+            }
+        }
+        if (closed) {
+            String freshKey = key + ":" + UUID.randomUUID();
+            log.info("Idempotency key {} already used by a closed transaction, using new key {}", key, freshKey);
+            return new Resolution(freshKey, null);
+        }
+        return new Resolution(key, pending);
+    }
+
+    /**
+     * Runs the checkout for the key, unless one ran less than {@code checkout.idempotency.cache-seconds}
+     * ago or is still running, in which case its result is returned instead. Failed checkouts are
+     * not remembered, so they can be retried right away.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> deduplicate(String key, Supplier<CompletableFuture<T>> checkout) {
+        CompletableFuture<T> placeholder = new CompletableFuture<>();
+        Recent<T> mine = new Recent<>(placeholder, System.nanoTime());
+        Recent<T> existing = (Recent<T>) recent.compute(key, (k, current) ->
+                current == null || (current.result().isDone() && isExpired(current)) ? mine : current);
+        if (existing != mine) {
+            log.debug("Sharing in-flight checkout result for idempotency key {}", key);
+            return existing.result();
+        }
+
+        try {
+            checkout.get().whenComplete((result, error) -> {
+                if (error != null) {
+                    recent.remove(key, mine);
+                    placeholder.completeExceptionally(
+                            error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    placeholder.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            recent.remove(key, mine);
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+        return placeholder;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        recent.values().removeIf(entry -> entry.result().isDone() && isExpired(entry));
+    }
+
+    private boolean isExpired(Recent<?> entry) {
+        return System.nanoTime() - entry.createdAtNanos() > cacheSeconds * 1_000_000_000L;
+    }
+}
@@ -0,0 +1,85 @@
+package org.stockify.model.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.stockify.model.entity.ProductEntity;
+import org.stockify.model.exception.NotFoundException;
+import org.stockify.model.repository.ProductRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the products of a checkout with one query and keeps them for the rest of the request.
+ * <p>
+ * The id to entity map lives in a request attribute, so the transaction, the sale and the
+ * Mercado Pago preference built while handling the same request share a single
+ * {@code findAllById}. Outside a web request (schedulers, background jobs) each call simply
+ * queries the ids it is given.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckoutProductLoader {
+
+    private static final String ATTRIBUTE = CheckoutProductLoader.class.getName() + ".products";
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Returns the products with the given ids, querying only the ones not loaded yet in this request.
+     *
+     * @param productIds the ids of the products
+     * @return the products keyed by id
+     * @throws NotFoundException if any of the products does not exist
+     */
+    public Map<Long, ProductEntity> load(Collection<Long> productIds) {
+        Map<Long, ProductEntity> loaded = requestProducts();
+        Set<Long> missing = new LinkedHashSet<>(productIds);
+        missing.removeAll(loaded.keySet());
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).forEach(product -> loaded.put(product.getId(), product));
+        }
+
+        Map<Long, ProductEntity> products = new HashMap<>();
+        for (Long id : productIds) {
+            ProductEntity product = loaded.get(id);
+            if (product == null) {
+                throw new NotFoundException("Product with id " + id + " not found");
+            }
+            products.put(id, product);
+        }
+        return products;
+    }
+
+    /**
+     * Forgets the given products for the rest of the request, so the next {@link #load} reads them again.
+     *
+     * @param productIds the ids of the products
+     */
+    public void evict(Collection<Long> productIds) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            requestProducts().keySet().removeAll(productIds);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ProductEntity> requestProducts() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashMap<>();
+        }
+        Object products = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (products == null) {
+            products = new HashMap<Long, ProductEntity>();
+            attributes.setAttribute(ATTRIBUTE, products, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Long, ProductEntity>) products;
+    }
+}
@@ -3,11 +3,13 @@ package org.stockify.model.service;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.stockify.dto.response.StoreResponse;
 import org.stockify.dto.shared.HomeCarouselItem;
 import org.stockify.model.entity.CarouselItem;
 import org.stockify.model.entity.StoreEntity;
+import org.stockify.model.event.StoreConfigChangedEvent;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.StoreMapper;
 import org.stockify.model.repository.CarouselItemRepository;
@@ -23,6 +25,7 @@ public class HomeCarouselService {
     private final StoreRepository storeRepository;
     private final CarouselItemRepository carouselItemRepository;
     private final StoreMapper storeMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Replaces the whole carousel collection with the provided items.
@@ -45,6 +48,7 @@ public class HomeCarouselService {
             }
         }
         StoreEntity persisted = storeRepository.save(store);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(storeId));
         return storeMapper.toResponse(persisted);
     }
 
@@ -75,6 +79,7 @@ public class HomeCarouselService {
         entity.setStore(store);
         CarouselItem saved = carouselItemRepository.save(entity);
         store.getHomeCarousel().add(saved);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(storeId));
         return storeMapper.toDto(saved);
     }
 
@@ -87,6 +92,7 @@ public class HomeCarouselService {
         entity.setTitle(dto.title());
         entity.setHref(dto.href());
         CarouselItem saved = carouselItemRepository.save(entity);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(storeId));
         return storeMapper.toDto(saved);
     }
 
@@ -96,6 +102,7 @@ public class HomeCarouselService {
     public void deleteCarouselItem(Long storeId, Long itemId) {
         CarouselItem entity = getCarouselItem(storeId, itemId);
         carouselItemRepository.delete(entity);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(storeId));
     }
 
     private CarouselItem getCarouselItem(Long storeId, Long itemId) {
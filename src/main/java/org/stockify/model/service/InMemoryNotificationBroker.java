@@ -0,0 +1,22 @@
+package org.stockify.model.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.stockify.model.event.NotificationDelivery;
+
+/**
+ * Single-node broker: deliveries go straight to the connections of this node.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.broker", havingValue = "memory", matchIfMissing = true)
+public class InMemoryNotificationBroker implements NotificationBroker {
+
+    private final SseConnectionRegistry sseConnectionRegistry;
+
+    @Override
+    public void publish(NotificationDelivery delivery) {
+        sseConnectionRegistry.deliver(delivery);
+    }
+}
@@ -0,0 +1,157 @@
+package org.stockify.model.service;
+
+import com.mercadopago.client.preference.PreferenceClient;
+import com.mercadopago.client.preference.PreferenceRequest;
+import com.mercadopago.core.MPRequestOptions;
+import com.mercadopago.exceptions.MPApiException;
+import com.mercadopago.exceptions.MPException;
+import com.mercadopago.resources.preference.Preference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.stockify.util.CircuitBreaker;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking access to the Mercado Pago preference API.
+ * <p>
+ * Calls run on the {@code paymentGatewayExecutor} virtual threads and the returned future
+ * completes with the preference or with a {@link ResponseStatusException}:
+ * <ul>
+ *     <li>503 when too many calls are already in flight or the circuit breaker is open;</li>
+ *     <li>504 when the call does not answer within the timeout budget;</li>
+ *     <li>502 when Mercado Pago answers with an error.</li>
+ * </ul>
+ * Timeouts, connection errors and 5xx answers count as failures for the circuit breaker;
+ * 4xx answers do not, since they are caused by the request, not by the gateway.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MercadoPagoGateway {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    private final long timeoutMillis;
+
+    public MercadoPagoGateway(@Qualifier("paymentGatewayExecutor") ExecutorService executor,
+                              @Value("${mercadopago.gateway.max-concurrent:50}") int maxConcurrent,
+                              @Value("${mercadopago.gateway.timeout-ms:8000}") long timeoutMillis,
+                              @Value("${mercadopago.gateway.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${mercadopago.gateway.circuit.open-seconds:30}") long openSeconds) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutMillis = timeoutMillis;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    public CompletableFuture<Preference> createPreference(PreferenceRequest request) {
+        // The concurrency limit is checked first, so a saturated gateway never takes the
+        // breaker's half-open trial slot for a call it is not going to make
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many checkouts in progress, try again later"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Mercado Pago is temporarily unavailable, try again later"));
+        }
+
+        MPRequestOptions options = requestOptions();
+
+        CompletableFuture<Preference> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new PreferenceClient().create(request, options);
+                } catch (MPApiException e) {
+                    throw new GatewayException(e, e.getStatusCode() >= 500);
+                } catch (MPException e) {
+                    throw new GatewayException(e, true);
+                } finally {
+                    // Released when the call really ends, even if the caller already timed out
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the call never reached Mercado Pago
+            permits.release();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Mercado Pago is temporarily unavailable, try again later"));
+        }
+
+        CompletableFuture<Preference> result = new CompletableFuture<>();
+        call.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((preference, error) -> {
+            if (error == null) {
+                circuitBreaker.recordSuccess();
+                result.complete(preference);
+                return;
+            }
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                circuitBreaker.recordFailure();
+                log.warn("Mercado Pago did not answer within {} ms", timeoutMillis);
+                result.completeExceptionally(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        "Mercado Pago did not answer in time, try again later"));
+            } else if (cause instanceof GatewayException gatewayError) {
+                if (gatewayError.countsAsFailure) {
+                    circuitBreaker.recordFailure();
+                } else {
+                    circuitBreaker.recordSuccess();
+                }
+                result.completeExceptionally(new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                        "Error creating Mercado Pago preference: " + gatewayError.describe(), gatewayError.getCause()));
+            } else {
+                circuitBreaker.recordFailure();
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Request options that bound a blocking SDK call by the gateway timeout, for calls made
+     * outside this class (e.g. payment lookups from the webhook workers).
+     */
+    public MPRequestOptions requestOptions() {
+        return MPRequestOptions.builder()
+                .connectionTimeout((int) timeoutMillis)
+                .connectionRequestTimeout((int) timeoutMillis)
+                .socketTimeout((int) timeoutMillis)
+                .build();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private static final class GatewayException extends RuntimeException {
+
+        private final boolean countsAsFailure;
+
+        private GatewayException(MPException cause, boolean countsAsFailure) {
+            super(cause);
+            this.countsAsFailure = countsAsFailure;
+        }
+
+        private String describe() {
+            if (getCause() instanceof MPApiException apiError && apiError.getApiResponse() != null) {
+                return apiError.getApiResponse().getContent();
+            }
+            return getCause().getMessage();
+        }
+    }
+}
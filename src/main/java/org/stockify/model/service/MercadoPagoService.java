@@ -2,19 +2,17 @@ package org.stockify.model.service;
 
 import com.mercadopago.client.payment.PaymentClient;
 import com.mercadopago.client.preference.PreferenceBackUrlsRequest;
-import com.mercadopago.client.preference.PreferenceClient;
 import com.mercadopago.client.preference.PreferenceItemRequest;
 import com.mercadopago.client.preference.PreferencePayerRequest;
 import com.mercadopago.client.preference.PreferenceRequest;
 import com.mercadopago.exceptions.MPApiException;
 import com.mercadopago.exceptions.MPException;
 import com.mercadopago.resources.payment.Payment;
-import com.mercadopago.resources.preference.Preference;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.server.ResponseStatusException;
@@ -26,10 +24,9 @@ import org.stockify.model.entity.*;
 import org.stockify.model.enums.OrderStatus;
 import org.stockify.model.enums.PaymentMethod;
 import org.stockify.model.enums.PaymentStatus;
-import org.stockify.model.enums.TransactionType;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.event.PaymentStatusUpdatedEvent;
-import org.stockify.model.repository.ProductRepository;
+import org.stockify.model.projections.SaleLinks;
 import org.stockify.model.repository.SaleRepository;
 import org.stockify.model.repository.ShipmentRepository;
 import org.stockify.model.repository.TransactionRepository;
@@ -38,13 +35,12 @@ import org.stockify.util.PriceCalculator;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.UUID;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
@@ -53,7 +49,7 @@ public class MercadoPagoService {
 
     private static final String DEFAULT_CURRENCY = "ARS";
 
-    private final ProductRepository productRepository;
+    private final CheckoutProductLoader checkoutProductLoader;
     private final SaleRepository saleRepository;
     private final TransactionRepository transactionRepository;
     private final SaleService saleService;
@@ -63,9 +59,22 @@ public class MercadoPagoService {
     private final ShipmentRepository shipmentRepository;
     private final ShipmentService shipmentService;
     private final CartService cartService;
+    private final MercadoPagoGateway mercadoPagoGateway;
+    private final CheckoutIdempotencyStore checkoutIdempotencyStore;
+    private final ExecutorService paymentGatewayExecutor;
     private final org.stockify.config.MercadoPagoIntegrationConfig mercadoPagoConfig;
 
-    public MercadoPagoPreferenceResponse createPreference(SaleRequest request) {
+    /**
+     * Creates the sale (or reuses the pending one for the same cart) and asks Mercado Pago for a
+     * checkout preference.
+     * <p>
+     * The database work runs on the calling thread. The gateway call runs on
+     * {@link MercadoPagoGateway}'s virtual threads under its timeout and circuit breaker, so the
+     * request thread is released while Mercado Pago answers. The payment link is stored through the
+     * entity (so it is audited) and the cart is cleared after the response is ready.
+     * </p>
+     */
+    public CompletableFuture<MercadoPagoPreferenceResponse> createPreference(SaleRequest request) {
         if (request == null || request.getTransaction() == null ||
                 request.getTransaction().getDetailTransactions() == null ||
                 request.getTransaction().getDetailTransactions().isEmpty()) {
@@ -73,54 +82,30 @@ public class MercadoPagoService {
                     "Transaction with products is required to create a Mercado Pago preference");
         }
 
-        String idempotencyKey = generateIdempotencyKey(request);
+        String baseKey = checkoutIdempotencyStore.keyFor(request);
+        return checkoutIdempotencyStore.deduplicate(baseKey, () -> startPreference(request, baseKey));
+    }
+
+    private CompletableFuture<MercadoPagoPreferenceResponse> startPreference(SaleRequest request, String baseKey) {
+        CheckoutIdempotencyStore.Resolution resolution = checkoutIdempotencyStore.resolve(baseKey);
+        String idempotencyKey = resolution.key();
+        TransactionEntity transactionToUse = resolution.pending();
         Long transactionId;
-        TransactionEntity transactionToUse = transactionRepository
-                .findFirstByIdempotencyKeyAndPaymentStatusAndType(
-                        idempotencyKey,
-                        PaymentStatus.PENDING,
-                        TransactionType.SALE)
-                .orElse(null);
-
-        boolean keyUsedByClosedTransaction = transactionRepository
-                .existsByIdempotencyKeyAndTypeAndPaymentStatusIn(
-                        idempotencyKey,
-                        TransactionType.SALE,
-                        List.of(
-                                PaymentStatus.APPROVED,
-                                PaymentStatus.CANCELLED,
-                                PaymentStatus.REJECTED,
-                                PaymentStatus.REFUNDED));
-
-        if (transactionToUse != null && keyUsedByClosedTransaction) {
-            log.info(
-                    "Found PENDING transaction with key {} but there is already a closed transaction with same key. Creating a new transaction with a fresh key.",
-                    idempotencyKey);
-            transactionToUse = null;
-            idempotencyKey = idempotencyKey + ":" + UUID.randomUUID();
-        }
         try {
             if (transactionToUse != null) {
                 transactionId = transactionToUse.getId();
                 log.info("Reusing pending transaction {} with idempotencyKey {}", transactionId, idempotencyKey);
             } else {
-                if (keyUsedByClosedTransaction) {
-                    idempotencyKey = idempotencyKey + ":" + UUID.randomUUID();
-                    log.info("Idempotency key already used by a closed transaction, generating new key {}",
-                            idempotencyKey);
-                }
                 SaleResponse saleResponse = saleService.createSale(request, idempotencyKey);
                 transactionId = saleResponse.getTransaction().getId();
             }
         } catch (DataIntegrityViolationException e) {
             // Ya existe una transaccion PENDING con la misma key: reutilizarla
-            transactionToUse = transactionRepository
-                    .findFirstByIdempotencyKeyAndPaymentStatusAndType(
-                            idempotencyKey,
-                            PaymentStatus.PENDING,
-                            TransactionType.SALE)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
-                            "Existing pending transaction not found for idempotency key"));
+            transactionToUse = checkoutIdempotencyStore.resolve(idempotencyKey).pending();
+            if (transactionToUse == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Existing pending transaction not found for idempotency key");
+            }
             transactionId = transactionToUse.getId();
             log.info("Reusing pending transaction {} with idempotencyKey {}", transactionId, idempotencyKey);
         }
@@ -142,9 +127,7 @@ public class MercadoPagoService {
 
         List<PreferenceItemRequest> items = new java.util.ArrayList<>(transactionToUse != null
                 ? buildItemsFromTransaction(transactionToUse)
-                : request.getTransaction().getDetailTransactions().stream()
-                        .map(this::buildItem)
-                        .toList());
+                : buildItemsFromRequest(request.getTransaction().getDetailTransactions()));
 
         long totalQuantity = items.stream().mapToLong(i -> i.getQuantity()).sum();
         Double shippingCostValue = shipmentService.calculateShippingCost(totalQuantity);
@@ -186,61 +169,33 @@ public class MercadoPagoService {
         }
 
         PreferenceRequest preferenceRequest = preferenceRequestBuilder.build();
-
-        try {
-            Preference preference = new PreferenceClient().create(preferenceRequest);
-
-            TransactionEntity transaction = transactionRepository.findById(transactionId)
-                    .orElseThrow(() -> new NotFoundException("Transaction not found"));
-            transaction.setPaymentLink(preference.getInitPoint());
-            transactionRepository.save(transaction);
-
-            if (request.getUserId() != null) {
-                try {
-                    java.util.List<Long> productIds = transaction.getDetailTransactions().stream()
-                            .map(dt -> dt.getProduct().getId())
-                            .toList();
-                    cartService.removeProductsFromCart(request.getUserId(), productIds);
-                } catch (Exception e) {
-                    log.error("Error clearing cart for user {}: {}", request.getUserId(), e.getMessage());
-                }
+        List<Long> purchasedProductIds = transactionToUse != null
+                ? transactionToUse.getDetailTransactions().stream().map(dt -> dt.getProduct().getId()).toList()
+                : request.getTransaction().getDetailTransactions().stream()
+                        .map(DetailTransactionRequest::getProductID)
+                        .toList();
+        Long userId = request.getUserId();
+        Long preferenceTransactionId = transactionId;
+
+        return mercadoPagoGateway.createPreference(preferenceRequest).thenApply(preference -> {
+            transactionService.updatePaymentLink(preferenceTransactionId, preference.getInitPoint());
+            if (userId != null) {
+                clearPurchasedFromCart(userId, purchasedProductIds);
             }
-
             return new MercadoPagoPreferenceResponse(
                     preference.getId(),
                     preference.getInitPoint(),
                     preference.getSandboxInitPoint(),
-                    transactionId);
-        } catch (MPApiException e) {
-            String apiMessage = e.getApiResponse() != null ? e.getApiResponse().getContent() : e.getMessage();
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
-                    "Error creating Mercado Pago preference: " + apiMessage, e);
-        } catch (MPException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
-                    "Error creating Mercado Pago preference: " + e.getMessage(), e);
-        }
+                    preferenceTransactionId);
+        });
     }
 
-    private String generateIdempotencyKey(SaleRequest request) {
-        String userPart = request.getUserId() != null ? String.valueOf(request.getUserId()) : "anon";
-
-        String itemsPart = request.getTransaction().getDetailTransactions().stream()
-                .sorted(Comparator.comparing(DetailTransactionRequest::getProductID))
-                .map(d -> d.getProductID() + ":" + (d.getQuantity() == null ? 1 : d.getQuantity()))
-                .collect(java.util.stream.Collectors.joining("|"));
-
-        String canonical = userPart + "|" + itemsPart;
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hex = new StringBuilder();
-            for (byte b : hash) {
-                hex.append(String.format("%02x", b));
-            }
-            return hex.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
+    private void clearPurchasedFromCart(Long userId, List<Long> productIds) {
+        CompletableFuture.runAsync(() -> cartService.removeProductsFromCart(userId, productIds), paymentGatewayExecutor)
+                .exceptionally(e -> {
+                    log.error("Error clearing cart for user {}: {}", userId, e.getMessage());
+                    return null;
+                });
     }
 
     private List<PreferenceItemRequest> buildItemsFromTransaction(TransactionEntity transaction) {
@@ -254,10 +209,17 @@ public class MercadoPagoService {
                 .toList();
     }
 
-    private PreferenceItemRequest buildItem(DetailTransactionRequest detail) {
-        ProductEntity product = productRepository.findById(detail.getProductID())
-                .orElseThrow(() -> new NotFoundException("Product with id " + detail.getProductID() + " not found"));
+    private List<PreferenceItemRequest> buildItemsFromRequest(List<DetailTransactionRequest> details) {
+        // Ya cargados por createSale en este mismo request: no se vuelve a consultar la base
+        Map<Long, ProductEntity> products = checkoutProductLoader.load(details.stream()
+                .map(DetailTransactionRequest::getProductID)
+                .toList());
+        return details.stream()
+                .map(detail -> buildItem(products.get(detail.getProductID()), detail.getQuantity()))
+                .toList();
+    }
 
+    private PreferenceItemRequest buildItem(ProductEntity product, Long requestedQuantity) {
         BigDecimal basePrice = product.getPrice();
         if (basePrice == null || basePrice.compareTo(BigDecimal.ZERO) <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
@@ -269,9 +231,9 @@ public class MercadoPagoService {
             unitPrice = basePrice;
         }
 
-        int quantity = detail.getQuantity() == null || detail.getQuantity() <= 0
+        int quantity = requestedQuantity == null || requestedQuantity <= 0
                 ? 1
-                : Math.toIntExact(detail.getQuantity());
+                : Math.toIntExact(requestedQuantity);
 
         return PreferenceItemRequest.builder()
                 .id(String.valueOf(product.getId()))
@@ -290,161 +252,125 @@ public class MercadoPagoService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Product information missing in existing transaction detail");
         }
-        DetailTransactionRequest request = new DetailTransactionRequest(product.getId(), detail.getQuantity());
-        return buildItem(request);
+        return buildItem(product, detail.getQuantity());
     }
 
-    public ResponseEntity<String> handleWebhook(Map<String, String> params,
-            Map<String, Object> body,
-            String xSignature,
-            String xRequestId) {
-
-        String dataId = params.get("data.id");
-        String action = params.get("action");
-        String topic = params.get("type");
-
-        if (body != null) {
-            if (dataId == null) {
-                dataId = extractDataId(body);
-            }
-            if (action == null) {
-                action = (String) body.get("action");
-            }
-            if (topic == null) {
-                topic = (String) body.get("type");
-            }
-        }
-
-        if (topic == null && action != null && action.startsWith("payment")) {
-            topic = "payment";
+    /**
+     * Fetches a payment from Mercado Pago, bounded by the gateway timeout.
+     *
+     * @param paymentId the payment id received in the notification
+     * @return the payment, or empty when Mercado Pago does not know it (retrying will not help)
+     * @throws IllegalStateException if the payment could not be fetched; the caller should retry
+     */
+    public Optional<Payment> fetchPayment(String paymentId) {
+        long id;
+        try {
+            id = Long.parseLong(paymentId);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid payment id in webhook: {}", paymentId);
+            return Optional.empty();
         }
-
         try {
-            String paymentId = dataId;
-
-            log.info("Notificacion recibida - Tipo: {}, ID de pago: {}", topic, paymentId);
-            if (paymentId != null) {
-                try {
-                    processWebhookNotification(topic, paymentId);
-                    return ResponseEntity.ok("Notificacion recibida correctamente");
-                } catch (RuntimeException e) {
-                    String msg = e.getMessage();
-                    if (msg != null && (msg.contains("No se pudo encontrar el pago")
-                            || msg.contains("Payment not found"))) {
-                        log.warn("Pago no encontrado o invalido, deteniendo reintentos: {}", msg);
-                        return ResponseEntity.ok("Notificacion procesada (Pago no encontrado)");
-                    }
-                    log.warn("Error de negocio al procesar webhook: {}", msg);
-                    return ResponseEntity.ok("Notificacion recibida (Error de negocio)");
-                }
+            return Optional.ofNullable(new PaymentClient().get(id, mercadoPagoGateway.requestOptions()));
+        } catch (MPApiException e) {
+            int status = e.getStatusCode();
+            String content = e.getApiResponse() != null ? e.getApiResponse().getContent() : e.getMessage();
+            if (status == 404 || (content != null && content.contains("Payment not found"))) {
+                log.warn("Payment not found for ID {}. Ignoring webhook to avoid retries. Response: {}", paymentId, content);
+                return Optional.empty();
             }
-
-            log.warn("ID de pago no proporcionado en webhook. Se responde 200 para cortar reintentos.");
-            return ResponseEntity.ok("Notificacion recibida sin ID de pago");
-        } catch (Exception e) {
-            log.error("Error al procesar notificacion de webhook", e);
-            return ResponseEntity.ok("Notificacion recibida (error interno)");
+            throw new IllegalStateException("Error fetching payment from MercadoPago: " + content, e);
+        } catch (MPException e) {
+            throw new IllegalStateException("Error fetching payment from MercadoPago: " + e.getMessage(), e);
         }
     }
 
-    public void processWebhookNotification(String topic, String id) {
-        if (!"payment".equals(topic))
+    /**
+     * Applies the status of a payment fetched from Mercado Pago to its transaction: payment
+     * details, stock holds and shipment, in one database transaction.
+     *
+     * @throws NotFoundException if the transaction referenced by the payment does not exist
+     */
+    @Transactional
+    public void applyPayment(Payment payment) {
+        String id = String.valueOf(payment.getId());
+        String externalReference = payment.getExternalReference();
+        if (externalReference == null) {
+            log.warn("Payment {} has no external reference. Cannot link to transaction.", id);
             return;
+        }
 
+        Long transactionId;
         try {
-            PaymentClient client = new PaymentClient();
-            Payment payment = client.get(Long.parseLong(id));
-
-            if (payment == null) {
-                log.error("Payment not found for ID: {}", id);
-                return;
-            }
-
-            String externalReference = payment.getExternalReference();
-            if (externalReference == null) {
-                log.warn("Payment {} has no external reference. Cannot link to transaction.", id);
-                return;
-            }
-
-            Long transactionId;
-            try {
-                transactionId = Long.parseLong(externalReference);
-            } catch (NumberFormatException e) {
-                log.error("Invalid external reference format: {}", externalReference);
-                return;
-            }
+            transactionId = Long.parseLong(externalReference);
+        } catch (NumberFormatException e) {
+            log.error("Invalid external reference format: {}", externalReference);
+            return;
+        }
 
-            TransactionEntity transaction = transactionRepository.findById(transactionId)
-                    .orElseThrow(() -> new NotFoundException("Transaction not found for ID: " + transactionId));
+        TransactionEntity transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new NotFoundException("Transaction not found for ID: " + transactionId));
 
-            PaymentStatus oldStatus = transaction.getPaymentStatus();
+        PaymentStatus oldStatus = transaction.getPaymentStatus();
 
-            PaymentStatus newStatus = mapStatus(payment.getStatus());
-            transaction.setPaymentStatus(newStatus);
-            // Actualiza detalles del pago (no se almacena informacion sensible completa)
-            applyPaymentDetails(transaction, payment);
-            PaymentMethod mappedMethod = mapPaymentMethod(payment.getPaymentTypeId());
-            if (mappedMethod != null) {
-                transaction.setPaymentMethod(mappedMethod);
-            }
-            boolean statusChanged = oldStatus != newStatus;
-            if (statusChanged && newStatus != null && transaction.getType() != null) {
-                boolean sameStatusSameKeyExists = transactionRepository
-                        .existsByIdempotencyKeyAndPaymentStatusAndTypeAndIdNot(
-                                transaction.getIdempotencyKey(),
-                                newStatus,
-                                transaction.getType(),
-                                transaction.getId());
-                if (sameStatusSameKeyExists) {
-                    String originalKey = transaction.getIdempotencyKey();
-                    String newKey = originalKey + ":" + UUID.randomUUID();
-                    transaction.setIdempotencyKey(newKey);
-                    log.warn("Idempotency key {} already used by another transaction in status {}. " +
-                            "Assigning new key {} to avoid constraint violation.",
-                            originalKey, newStatus, newKey);
-                }
+        PaymentStatus newStatus = mapStatus(payment.getStatus());
+        transaction.setPaymentStatus(newStatus);
+        // Actualiza detalles del pago (no se almacena informacion sensible completa)
+        applyPaymentDetails(transaction, payment);
+        PaymentMethod mappedMethod = mapPaymentMethod(payment.getPaymentTypeId());
+        if (mappedMethod != null) {
+            transaction.setPaymentMethod(mappedMethod);
+        }
+        boolean statusChanged = oldStatus != newStatus;
+        if (statusChanged && newStatus != null && transaction.getType() != null) {
+            boolean sameStatusSameKeyExists = transactionRepository
+                    .existsByIdempotencyKeyAndPaymentStatusAndTypeAndIdNot(
+                            transaction.getIdempotencyKey(),
+                            newStatus,
+                            transaction.getType(),
+                            transaction.getId());
+            if (sameStatusSameKeyExists) {
+                String originalKey = transaction.getIdempotencyKey();
+                String newKey = originalKey + ":" + UUID.randomUUID();
+                transaction.setIdempotencyKey(newKey);
+                log.warn("Idempotency key {} already used by another transaction in status {}. " +
+                        "Assigning new key {} to avoid constraint violation.",
+                        originalKey, newStatus, newKey);
             }
+        }
 
-            transactionRepository.save(transaction);
-
-            log.info("Updated transaction {} status to {}", transactionId, newStatus);
+        transactionRepository.save(transaction);
 
-            if (oldStatus != newStatus) {
-                Long saleId = saleRepository.findSaleIdByTransactionId(transactionId).orElse(null);
-                Long userId = saleRepository.findUserIdByTransactionId(transactionId).orElse(null);
-                eventPublisher.publishEvent(new PaymentStatusUpdatedEvent(
-                        saleId,
-                        oldStatus,
-                        newStatus,
-                        userId));
-            }
+        log.info("Updated transaction {} status to {}", transactionId, newStatus);
 
-            // Logic to restore stock using TransactionService if payment failed
-            if (isFailureStatus(newStatus)) {
-                log.info("Payment failed for transaction {}. Restoring stock...", transactionId);
-                transactionService.restoreStock(transaction);
-            }
+        SaleLinks links = oldStatus != newStatus
+                ? saleRepository.findLinksByTransactionId(transactionId).orElse(null)
+                : null;
+        if (oldStatus != newStatus) {
+            eventPublisher.publishEvent(new PaymentStatusUpdatedEvent(
+                    links != null ? links.getSaleId() : null,
+                    oldStatus,
+                    newStatus,
+                    links != null ? links.getUserId() : null));
+        }
 
-            if (oldStatus != newStatus && newStatus == PaymentStatus.APPROVED) {
-                ShipmentEntity shipment = transaction.getSale().getShipment();
-                shipment.setStatus(OrderStatus.PROCESSING);
-                shipmentRepository.save(shipment);
+        // Logic to restore stock using TransactionService if payment failed
+        if (isFailureStatus(newStatus)) {
+            log.info("Payment failed for transaction {}. Restoring stock...", transactionId);
+            transactionService.restoreStock(transaction);
+        }
 
-                log.info("Shipment updated to PROCESSING for transaction {}", transactionId);
-            }
+        if (oldStatus != newStatus && newStatus == PaymentStatus.APPROVED) {
+            transactionService.commitStock(transaction);
 
-        } catch (MPApiException e) {
-            int status = e.getStatusCode();
-            String content = e.getApiResponse() != null ? e.getApiResponse().getContent() : e.getMessage();
-            if (status == 404 || (content != null && content.contains("Payment not found"))) {
-                log.warn("Payment not found for ID {}. Ignoring webhook to avoid retries. Response: {}", id, content);
+            if (links == null || links.getShipmentId() == null) {
+                log.warn("No shipment linked to transaction {}", transactionId);
                 return;
             }
-            log.error("MercadoPago API Error: {}", content);
-            throw new RuntimeException("Error fetching payment from MercadoPago: " + content, e);
-        } catch (MPException e) {
-            log.error("MercadoPago Error: {}", e.getMessage());
-            throw new RuntimeException("Error processing webhook", e);
+            ShipmentEntity shipment = shipmentRepository.getReferenceById(links.getShipmentId());
+            shipment.setStatus(OrderStatus.PROCESSING);
+
+            log.info("Shipment updated to PROCESSING for transaction {}", transactionId);
         }
     }
 
@@ -528,17 +454,4 @@ public class MercadoPagoService {
             default -> PaymentStatus.PENDING;
         };
     }
-
-    private String extractDataId(Map<String, Object> body) {
-        Object dataObj = body.get("data");
-        if (dataObj instanceof Map<?, ?> dataMap) {
-            Object idObj = dataMap.get("id");
-            if (idObj instanceof String) {
-                return (String) idObj;
-            } else if (idObj != null) {
-                return String.valueOf(idObj);
-            }
-        }
-        return null;
-    }
 }
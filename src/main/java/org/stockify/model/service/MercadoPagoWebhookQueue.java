@@ -0,0 +1,213 @@
+package org.stockify.model.service;
+
+import com.mercadopago.resources.payment.Payment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.stockify.model.projections.ClaimedWebhookEvent;
+import org.stockify.model.repository.WebhookEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Persisted queue for Mercado Pago payment notifications.
+ * <p>
+ * The webhook only records the notification (one upsert keyed by payment id) and answers
+ * right away, so Mercado Pago does not retry because of a slow response. A poller claims due
+ * rows with {@code SKIP LOCKED} and hands them to the {@code webhookExecutor} workers, never
+ * more than there are free workers. Each worker fetches the payment once, however many
+ * notifications were folded into its row, and applies it in one transaction. Failures are
+ * retried with exponential backoff up to {@code mercadopago.webhook.max-attempts}.
+ * </p>
+ */
+@Slf4j
+@Service
+public class MercadoPagoWebhookQueue {
+
+    private static final String PAYMENT_TOPIC = "payment";
+    private static final int MAX_PAYMENT_ID_LENGTH = 64;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final MercadoPagoService mercadoPagoService;
+    private final TaskExecutor webhookExecutor;
+    private final Semaphore freeWorkers;
+
+    @Value("${mercadopago.webhook.coalesce-ms:2000}")
+    private long coalesceMillis;
+
+    @Value("${mercadopago.webhook.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mercadopago.webhook.backoff-initial-seconds:5}")
+    private long backoffInitialSeconds;
+
+    @Value("${mercadopago.webhook.backoff-max-seconds:600}")
+    private long backoffMaxSeconds;
+
+    @Value("${mercadopago.webhook.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${mercadopago.webhook.retention-days:7}")
+    private long retentionDays;
+
+    public MercadoPagoWebhookQueue(WebhookEventRepository webhookEventRepository,
+                                   MercadoPagoService mercadoPagoService,
+                                   @Qualifier("webhookExecutor") TaskExecutor webhookExecutor,
+                                   @Value("${mercadopago.webhook.workers:4}") int workers) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.mercadoPagoService = mercadoPagoService;
+        this.webhookExecutor = webhookExecutor;
+        this.freeWorkers = new Semaphore(workers);
+    }
+
+    /**
+     * Records a webhook notification and answers immediately.
+     * <p>
+     * Notifications that are not about a payment, or carry no payment id, are acknowledged
+     * and dropped. If the notification cannot be stored the answer is 503, so Mercado Pago
+     * delivers it again later.
+     * </p>
+     */
+    public ResponseEntity<String> accept(Map<String, String> params, Map<String, Object> body) {
+        String dataId = params.get("data.id");
+        String action = params.get("action");
+        String topic = params.get("type");
+
+        if (body != null) {
+            if (dataId == null) {
+                dataId = extractDataId(body);
+            }
+            if (action == null) {
+                action = (String) body.get("action");
+            }
+            if (topic == null) {
+                topic = (String) body.get("type");
+            }
+        }
+
+        if (topic == null && action != null && action.startsWith("payment")) {
+            topic = PAYMENT_TOPIC;
+        }
+
+        log.info("Notificacion recibida - Tipo: {}, ID de pago: {}", topic, dataId);
+        if (dataId == null) {
+            log.warn("ID de pago no proporcionado en webhook. Se responde 200 para cortar reintentos.");
+            return ResponseEntity.ok("Notificacion recibida sin ID de pago");
+        }
+        if (!PAYMENT_TOPIC.equals(topic)) {
+            return ResponseEntity.ok("Notificacion recibida (tipo ignorado)");
+        }
+        if (dataId.length() > MAX_PAYMENT_ID_LENGTH || !dataId.chars().allMatch(Character::isDigit)) {
+            log.warn("ID de pago invalido en webhook: {}", dataId);
+            return ResponseEntity.ok("Notificacion recibida (ID de pago invalido)");
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            webhookEventRepository.enqueue(dataId, now, now.plus(Duration.ofMillis(coalesceMillis)));
+        } catch (DataAccessException e) {
+            log.error("No se pudo encolar la notificacion del pago {}", dataId, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Notificacion no registrada, reintentar");
+        }
+        return ResponseEntity.ok("Notificacion recibida correctamente");
+    }
+
+    /**
+     * Claims as many due notifications as there are free workers and starts processing them.
+     */
+    @Scheduled(fixedDelayString = "${mercadopago.webhook.poll-interval-ms:1000}", scheduler = "webhookDispatchScheduler")
+    public void dispatch() {
+        int free = freeWorkers.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimedWebhookEvent> claimed;
+        try {
+            claimed = webhookEventRepository.claimDue(free, now, now.minusSeconds(leaseSeconds));
+        } catch (DataAccessException e) {
+            log.error("Error claiming queued Mercado Pago notifications", e);
+            return;
+        }
+        for (ClaimedWebhookEvent event : claimed) {
+            // Only this thread acquires permits, so the ones counted above are still free
+            freeWorkers.acquireUninterruptibly();
+            try {
+                webhookExecutor.execute(() -> {
+                    try {
+                        process(event);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                // Left PROCESSING: claimed again once its lease runs out
+                log.error("Could not start processing notification for payment {}", event.getPaymentId(), e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 30 * * * *")
+    public void purgeProcessed() {
+        int purged = webhookEventRepository.purgeDone(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} processed Mercado Pago notifications", purged);
+        }
+    }
+
+    private void process(ClaimedWebhookEvent event) {
+        String paymentId = event.getPaymentId();
+        try {
+            Optional<Payment> payment = mercadoPagoService.fetchPayment(paymentId);
+            payment.ifPresent(mercadoPagoService::applyPayment);
+            LocalDateTime now = LocalDateTime.now();
+            webhookEventRepository.complete(paymentId, event.getNotifications(), now,
+                    now.plus(Duration.ofMillis(coalesceMillis)));
+        } catch (Exception e) {
+            Duration delay = backoff(event.getAttempts());
+            log.warn("Error processing notification for payment {} (attempt {} of {}), retrying in {}s: {}",
+                    paymentId, event.getAttempts(), maxAttempts, delay.toSeconds(), e.getMessage());
+            try {
+                webhookEventRepository.fail(paymentId, maxAttempts, LocalDateTime.now().plus(delay), truncate(e));
+            } catch (DataAccessException failure) {
+                log.error("Could not record failure for payment {}", paymentId, failure);
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = backoffInitialSeconds << Math.min(Math.max(attempts - 1, 0), 20);
+        return Duration.ofSeconds(Math.min(seconds, backoffMaxSeconds));
+    }
+
+    private static String truncate(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String extractDataId(Map<String, Object> body) {
+        Object dataObj = body.get("data");
+        if (dataObj instanceof Map<?, ?> dataMap) {
+            Object idObj = dataMap.get("id");
+            if (idObj instanceof String) {
+                return (String) idObj;
+            } else if (idObj != null) {
+                return String.valueOf(idObj);
+            }
+        }
+        return null;
+    }
+}
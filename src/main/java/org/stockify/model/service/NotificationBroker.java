@@ -0,0 +1,20 @@
+package org.stockify.model.service;
+
+import org.stockify.model.event.NotificationDelivery;
+
+/**
+ * Carries published notifications to the SSE connections of every application node.
+ * <p>
+ * Each node subscribes once and hands what it receives to its {@link SseConnectionRegistry}.
+ * The implementation is chosen with {@code notifications.broker}: {@code memory} (default)
+ * delivers on the local node only, {@code postgres} fans out through {@code LISTEN/NOTIFY}.
+ * </p>
+ */
+public interface NotificationBroker {
+
+    /**
+     * Publishes a delivery. When called inside a database transaction, implementations
+     * backed by the database deliver it only if the transaction commits.
+     */
+    void publish(NotificationDelivery delivery);
+}
@@ -1,14 +1,16 @@
 package org.stockify.model.service;
 
-import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,9 +24,11 @@ import org.stockify.model.entity.NotificationEntity;
 import org.stockify.model.entity.NotificationHidden;
 import org.stockify.model.entity.NotificationRead;
 import org.stockify.model.enums.NotificationStatus;
+import org.stockify.model.event.NotificationDelivery;
 import org.stockify.model.enums.NotificationType;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.NotificationMapper;
+import org.stockify.model.repository.NotificationBulkRepository;
 import org.stockify.model.repository.NotificationHiddenRepository;
 import org.stockify.model.repository.NotificationReadRepository;
 import org.stockify.model.repository.NotificationRepository;
@@ -36,33 +40,22 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int BULK_CHUNK_SIZE = 1_000;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBulkRepository notificationBulkRepository;
     private final NotificationMapper notificationMapper;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final NotificationReadRepository notificationReadRepository;
     private final NotificationHiddenRepository notificationHiddenRepository;
-    private final Map<Long, Set<SseEmitter>> activeEmitters = new ConcurrentHashMap<>();
+    private final SseConnectionRegistry sseConnectionRegistry;
+    private final NotificationBroker notificationBroker;
+    private final MeterRegistry meterRegistry;
 
     // SSE
     public SseEmitter subscribe(Long userId) {
-        SseEmitter emitter = new SseEmitter(3600000L);
-        activeEmitters.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet())
-                .add(emitter);
-
-        emitter.onCompletion(() -> removeEmitter(userId, emitter));
-        emitter.onTimeout(() -> removeEmitter(userId, emitter));
-        emitter.onError(e -> removeEmitter(userId, emitter));
-
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("keepalive")
-                    .data("keepalive"));
-        } catch (IOException e) {
-            removeEmitter(userId, emitter);
-        }
-
-        return emitter;
+        return sseConnectionRegistry.subscribe(userId);
     }
 
     // CRUD
@@ -87,6 +80,43 @@ public class NotificationService {
         return getNotificationResponse(entity);
     }
 
+    /**
+     * Creates the same notification for many users: one multi-row insert per chunk of
+     * {@value #BULK_CHUNK_SIZE} users instead of one transaction per user. The request is
+     * validated once; users that do not exist are skipped. Each chunk commits on its own and
+     * its notifications are pushed in one pass to the targeted users that are connected.
+     *
+     * @param request the notification to send; its {@code targetUserId} is ignored
+     * @param userIds the users to notify
+     * @return how many notifications were created
+     */
+    public int createNotifications(NotificationRequest request, Collection<Long> userIds) {
+        checkRequestIntegrity(request, null);
+        NotificationEntity template = notificationMapper.toEntity(request);
+        template.setTargetUserId(null);
+        template.setCreatedAt(Instant.now());
+        if (template.getStatus() == null) {
+            template.setStatus(NotificationStatus.PENDING);
+        }
+        if (template.getStatus() == NotificationStatus.PENDING && isReadyToPublish(template.getPublishAt())) {
+            template.setStatus(NotificationStatus.PUBLISHED);
+        }
+        NotificationResponse response = notificationMapper.toResponse(template);
+
+        List<Long> targets = new ArrayList<>(new LinkedHashSet<>(userIds));
+        int created = 0;
+        for (int from = 0; from < targets.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = targets.subList(from, Math.min(from + BULK_CHUNK_SIZE, targets.size()));
+            List<NotificationBulkRepository.InsertedNotification> inserted =
+                    notificationBulkRepository.insertForUsers(template, chunk);
+            created += inserted.size();
+            if (template.getStatus() == NotificationStatus.PUBLISHED) {
+                dispatchToUsers(response, inserted);
+            }
+        }
+        return created;
+    }
+
     public NotificationResponse patchNotification(Long id, NotificationRequest request) {
         NotificationEntity entity = resolveNotification(id);
         checkRequestIntegrity(request, entity);
@@ -134,17 +164,22 @@ public class NotificationService {
 
     @Scheduled(fixedRate = 60000)
     public void publishScheduledNotifications() {
-        Instant now = Instant.now();
-        List<NotificationEntity> pending = notificationRepository
-                .findAllByStatusAndPublishAtBefore(NotificationStatus.PENDING, now);
-        pending.forEach(entity -> {
-            if (entity.getExpiresAt() != null && !entity.getExpiresAt().isAfter(now)) {
-                return;
+        meterRegistry.timer("notifications.scheduled.run").record(() -> {
+            Instant now = Instant.now();
+            List<NotificationEntity> pending = notificationRepository
+                    .findAllByStatusAndPublishAtBefore(NotificationStatus.PENDING, now);
+            int published = 0;
+            for (NotificationEntity entity : pending) {
+                if (entity.getExpiresAt() != null && !entity.getExpiresAt().isAfter(now)) {
+                    continue;
+                }
+                entity.setStatus(NotificationStatus.PUBLISHED);
+                notificationRepository.save(entity);
+                NotificationResponse response = notificationMapper.toResponse(entity);
+                dispatchToTargets(response, entity.getTargetUserId(), entity.getType());
+                published++;
             }
-            entity.setStatus(NotificationStatus.PUBLISHED);
-            notificationRepository.save(entity);
-            NotificationResponse response = notificationMapper.toResponse(entity);
-            dispatchToTargets(response, entity.getTargetUserId(), entity.getType());
+            meterRegistry.counter("notifications.scheduled.published").increment(published);
         });
     }
 
@@ -173,58 +208,26 @@ public class NotificationService {
 
     private void dispatchToTargets(NotificationResponse notification, Long targetUserId, NotificationType type) {
         if (targetUserId != null) {
-            sendToUser(targetUserId, notification);
+            notificationBroker.publish(NotificationDelivery.toUser(targetUserId, notification));
             return;
         }
-
-        activeEmitters.keySet().forEach(connectedUserId -> {
-            boolean shouldSend = type == NotificationType.GLOBAL || type == NotificationType.PRODUCT_ALERT;
-            if (shouldSend) {
-                sendToUser(connectedUserId, notification);
-            }
-        });
-    }
-
-    private void sendToUser(Long userId, NotificationResponse notification) {   
-        Set<SseEmitter> emitters = activeEmitters.get(userId);
-        if (emitters == null || emitters.isEmpty())
+        if (type == NotificationType.PRODUCT_ALERT && notification.relatedProductId() != null) {
+            // Una sola alerta por producto: cada nodo la envia a sus usuarios conectados que lo tienen en su wishlist
+            notificationBroker.publish(NotificationDelivery.toProductSubscribers(notification.relatedProductId(), notification));
             return;
-
-        emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("notification")
-                        .data(notification));
-            } catch (IOException e) {
-                removeEmitter(userId, emitter);
-            }
-        });
-    }
-
-    @Scheduled(fixedRate = 25000)
-    public void sendKeepAlive() {
-        activeEmitters.forEach((userId, emitters) -> {
-            emitters.forEach(emitter -> {
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("keepalive")
-                            .data("keepalive"));
-                } catch (IOException e) {
-                    removeEmitter(userId, emitter);
-                }
-            });
-        });
+        }
+        if (type == NotificationType.GLOBAL || type == NotificationType.PRODUCT_ALERT) {
+            notificationBroker.publish(NotificationDelivery.toEveryone(notification));
+        }
     }
 
-    private void removeEmitter(Long userId, SseEmitter emitter) {
-        Set<SseEmitter> emitters = activeEmitters.get(userId);
-        if (emitters == null) {
-            return;
-        }
-        emitters.remove(emitter);
-        if (emitters.isEmpty()) {
-            activeEmitters.remove(userId);
+    private void dispatchToUsers(NotificationResponse notification,
+                                 List<NotificationBulkRepository.InsertedNotification> inserted) {
+        Map<Long, Long> notificationIds = new LinkedHashMap<>();
+        for (NotificationBulkRepository.InsertedNotification row : inserted) {
+            notificationIds.put(row.userId(), row.id());
         }
+        notificationBroker.publish(NotificationDelivery.toUsers(notificationIds, notification));
     }
 
     private void checkRequestIntegrity(NotificationRequest request, NotificationEntity existing) {
@@ -0,0 +1,165 @@
+package org.stockify.model.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.stockify.model.event.NotificationDelivery;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-node broker on PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Deliveries are serialized to JSON and sent with {@code pg_notify} on the caller's
+ * connection, so a delivery published inside a transaction only goes out if it commits.
+ * Every node, the publisher included, listens on the channel with one dedicated connection
+ * opened outside the pool, and hands what it receives to its local
+ * {@link SseConnectionRegistry}. The listener reconnects with backoff if the connection drops;
+ * notifications sent while it is down are not replayed, but remain in each user's list.
+ * </p>
+ * <p>
+ * NOTIFY payloads are limited to 8000 bytes, so deliveries to many users are split into
+ * several messages.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.broker", havingValue = "postgres")
+public class PostgresNotificationBroker implements NotificationBroker, SmartLifecycle {
+
+    private static final String CHANNEL = "stockify_notifications";
+    private static final int MAX_PAYLOAD_BYTES = 7_900;
+    private static final int USERS_PER_MESSAGE = 200;
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final SseConnectionRegistry sseConnectionRegistry;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @Override
+    public void publish(NotificationDelivery delivery) {
+        for (NotificationDelivery part : split(delivery)) {
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(part);
+            } catch (JsonProcessingException e) {
+                log.error("Could not serialize notification delivery", e);
+                continue;
+            }
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                log.warn("Notification {} is too large to broadcast; it is only shown in the notification list",
+                        part.notification().id());
+                continue;
+            }
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("notification-listener").daemon(true).start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long reconnectDelay = 1_000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for notifications on channel {}", CHANNEL);
+                reconnectDelay = 1_000;
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener connection lost, reconnecting in {} ms: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            sseConnectionRegistry.deliver(objectMapper.readValue(payload, NotificationDelivery.class));
+        } catch (Exception e) {
+            log.error("Could not deliver notification received from channel {}", CHANNEL, e);
+        }
+    }
+
+    private static List<NotificationDelivery> split(NotificationDelivery delivery) {
+        if (delivery.audience() != NotificationDelivery.Audience.USERS
+                || delivery.notificationIds().size() <= USERS_PER_MESSAGE) {
+            return List.of(delivery);
+        }
+        List<NotificationDelivery> parts = new ArrayList<>();
+        Map<Long, Long> part = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : delivery.notificationIds().entrySet()) {
+            part.put(entry.getKey(), entry.getValue());
+            if (part.size() == USERS_PER_MESSAGE) {
+                parts.add(NotificationDelivery.toUsers(part, delivery.notification()));
+                part = new LinkedHashMap<>();
+            }
+        }
+        if (!part.isEmpty()) {
+            parts.add(NotificationDelivery.toUsers(part, delivery.notification()));
+        }
+        return parts;
+    }
+}
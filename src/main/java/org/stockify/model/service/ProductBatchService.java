@@ -0,0 +1,202 @@
+package org.stockify.model.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.stockify.dto.request.product.ProductRequest;
+import org.stockify.dto.response.BulkItemResponse;
+import org.stockify.model.entity.CategoryEntity;
+import org.stockify.model.entity.ProductEntity;
+import org.stockify.model.event.ProductCatalogChangedEvent;
+import org.stockify.model.mapper.ProductMapper;
+import org.stockify.model.repository.CategoryRepository;
+import org.stockify.model.repository.ProductRepository;
+import org.stockify.util.StringNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists chunks of product bulk requests.
+ * <p>
+ * Every chunk runs in its own transaction: existing products and categories are
+ * resolved with one query each, new products are inserted through JDBC batching
+ * and the persistence context is flushed and cleared before returning, so memory
+ * stays proportional to the chunk size.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBatchService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persists a chunk of products, reviving soft-deleted matches and skipping duplicates
+     * the same way {@link ProductService#save(ProductRequest)} does for a single product.
+     *
+     * @param chunk the requests to persist
+     * @return one result per request, in the same order
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<BulkItemResponse> persistChunk(List<ProductRequest> chunk) {
+        Map<String, CategoryEntity> categories = resolveCategories(chunk);
+        List<ProductEntity> existing = loadExisting(chunk);
+
+        Set<String> takenNames = new HashSet<>();
+        Set<String> takenBarcodes = new HashSet<>();
+        Map<String, ProductEntity> deletedByName = new HashMap<>();
+        Map<String, ProductEntity> deletedByBarcode = new HashMap<>();
+        for (ProductEntity product : existing) {
+            takenNames.add(product.getName());
+            if (product.getBarcode() != null) {
+                takenBarcodes.add(product.getBarcode());
+            }
+            if (Boolean.TRUE.equals(product.getDeleted())) {
+                deletedByName.putIfAbsent(product.getNameNormalized(), product);
+                if (product.getBarcodeNormalized() != null) {
+                    deletedByBarcode.putIfAbsent(product.getBarcodeNormalized(), product);
+                }
+            }
+        }
+
+        List<BulkItemResponse> results = new ArrayList<>(chunk.size());
+        List<ProductEntity> toInsert = new ArrayList<>();
+        Set<ProductEntity> revived = new HashSet<>();
+
+        for (ProductRequest req : chunk) {
+            try {
+                ProductEntity deleted = deletedByName.get(StringNormalizer.normalize(req.name()));
+                if (deleted == null) {
+                    deleted = deletedByBarcode.get(StringNormalizer.normalize(req.barcode()));
+                }
+
+                if (deleted != null && !revived.contains(deleted)) {
+                    takenNames.remove(deleted.getName());
+                    takenBarcodes.remove(deleted.getBarcode());
+                    if (isTaken(req, takenNames, takenBarcodes)) {
+                        takenNames.add(deleted.getName());
+                        takenBarcodes.add(deleted.getBarcode());
+                        results.add(new BulkItemResponse(req.name(), "SKIPPED", "Duplicated, item skipped"));
+                        continue;
+                    }
+                    deleted.setDeleted(false);
+                    deleted.setCategories(pickCategories(categories, req.categories()));
+                    productMapper.updateEntityFromRequest(req, deleted);
+                    revived.add(deleted);
+                    claim(req, takenNames, takenBarcodes);
+                    results.add(new BulkItemResponse(req.name(), "CREATED", null));
+                    continue;
+                }
+
+                if (isTaken(req, takenNames, takenBarcodes)) {
+                    results.add(new BulkItemResponse(req.name(), "SKIPPED", "Duplicated, item skipped"));
+                    continue;
+                }
+
+                ProductEntity product = productMapper.toEntity(req);
+                product.setCategories(pickCategories(categories, req.categories()));
+                toInsert.add(product);
+                claim(req, takenNames, takenBarcodes);
+                results.add(new BulkItemResponse(req.name(), "CREATED", null));
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                results.add(new BulkItemResponse(req.name(), "ERROR", "Invalid data: " + ex.getMessage()));
+            }
+        }
+
+        productRepository.saveAll(toInsert);
+        entityManager.flush();
+
+        List<Long> changedIds = new ArrayList<>(toInsert.size() + revived.size());
+        toInsert.forEach(product -> changedIds.add(product.getId()));
+        revived.forEach(product -> changedIds.add(product.getId()));
+        entityManager.clear();
+        if (!changedIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProductCatalogChangedEvent(changedIds, false));
+        }
+        return results;
+    }
+
+    private List<ProductEntity> loadExisting(List<ProductRequest> chunk) {
+        Set<String> names = new HashSet<>();
+        Set<String> barcodes = new HashSet<>();
+        for (ProductRequest req : chunk) {
+            names.add(StringNormalizer.normalize(req.name()));
+            if (req.barcode() != null) {
+                barcodes.add(StringNormalizer.normalize(req.barcode()));
+            }
+        }
+        if (barcodes.isEmpty()) {
+            // No barcodes in the chunk: an empty IN () is not valid, so match by name only
+            return productRepository.findAllByNameNormalizedIn(names);
+        }
+        return productRepository.findAllByNormalizedNamesOrBarcodes(names, barcodes);
+    }
+
+    private Map<String, CategoryEntity> resolveCategories(List<ProductRequest> chunk) {
+        Set<String> names = chunk.stream()
+                .map(ProductRequest::categories)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, CategoryEntity> resolved = categoryRepository.findAllByNameIn(names).stream()
+                .collect(Collectors.toMap(CategoryEntity::getName, Function.identity()));
+
+        List<CategoryEntity> missing = names.stream()
+                .filter(name -> !resolved.containsKey(name))
+                .map(name -> {
+                    CategoryEntity category = new CategoryEntity();
+                    category.setName(name);
+                    return category;
+                })
+                .toList();
+        if (!missing.isEmpty()) {
+            categoryRepository.saveAll(missing).forEach(category -> resolved.put(category.getName(), category));
+            eventPublisher.publishEvent(new ProductCatalogChangedEvent(List.of(), true));
+        }
+        return resolved;
+    }
+
+    private Set<CategoryEntity> pickCategories(Map<String, CategoryEntity> categories, Set<String> names) {
+        if (names == null || names.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        return names.stream()
+                .map(categories::get)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private boolean isTaken(ProductRequest req, Set<String> takenNames, Set<String> takenBarcodes) {
+        return takenNames.contains(req.name())
+                || (req.barcode() != null && takenBarcodes.contains(req.barcode()));
+    }
+
+    private void claim(ProductRequest req, Set<String> takenNames, Set<String> takenBarcodes) {
+        takenNames.add(req.name());
+        if (req.barcode() != null) {
+            takenBarcodes.add(req.barcode());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.stockify.model.service;
+
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.exceptions.CsvException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.stockify.dto.request.product.ProductCSVRequest;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streams product rows out of CSV and Excel files.
+ * <p>
+ * CSV files are iterated through OpenCSV and XLSX sheets are parsed with POI's SAX
+ * event API, so only the current row is held in memory. Legacy XLS files have no
+ * streaming reader and are still loaded through {@link WorkbookFactory}.
+ * </p>
+ */
+@Component
+public class ProductFileReader {
+
+    /**
+     * Receives rows as they are read from the file.
+     */
+    public interface RowHandler {
+        void onRow(ProductCSVRequest row);
+
+        void onError(long lineNumber, String message);
+    }
+
+    /**
+     * Formats numeric cells as plain numbers instead of applying the cell style,
+     * so long barcodes are not turned into scientific notation.
+     */
+    private static final DataFormatter RAW_NUMBER_FORMATTER = new DataFormatter() {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            return formatRawCellContents(value, formatIndex, formatString);
+        }
+    };
+
+    public static boolean isExcel(String filename) {
+        return filename != null && (filename.endsWith(".xls") || filename.endsWith(".xlsx"));
+    }
+
+    /**
+     * Reads every data row of the file and hands it to the handler.
+     *
+     * @param file    the uploaded CSV, XLS or XLSX file
+     * @param handler callback receiving rows and parsing errors
+     * @throws Exception if the file cannot be read
+     */
+    public void read(MultipartFile file, RowHandler handler) throws Exception {
+        read(file.getOriginalFilename(), file, handler);
+    }
+
+    /**
+     * Reads every data row of the source, choosing the format from the file name.
+     *
+     * @param filename original name of the file, used to detect its format
+     * @param file     the file contents
+     * @param handler  callback receiving rows and parsing errors
+     * @throws Exception if the file cannot be read
+     */
+    public void read(String filename, InputStreamSource file, RowHandler handler) throws Exception {
+        if (filename != null && filename.endsWith(".xlsx")) {
+            readXlsx(file, handler);
+        } else if (isExcel(filename)) {
+            readXls(file, handler);
+        } else {
+            readCsv(file, handler);
+        }
+    }
+
+    private void readCsv(InputStreamSource file, RowHandler handler) throws Exception {
+        try (Reader reader = new InputStreamReader(file.getInputStream())) {
+            CsvToBean<ProductCSVRequest> csvToBean = new CsvToBeanBuilder<ProductCSVRequest>(reader)
+                    .withType(ProductCSVRequest.class)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .withThrowExceptions(false)
+                    .build();
+
+            int reportedErrors = 0;
+            for (ProductCSVRequest row : csvToBean) {
+                handler.onRow(row);
+                reportedErrors = reportCsvErrors(csvToBean, reportedErrors, handler);
+            }
+            reportCsvErrors(csvToBean, reportedErrors, handler);
+        }
+    }
+
+    private int reportCsvErrors(CsvToBean<ProductCSVRequest> csvToBean, int alreadyReported, RowHandler handler) {
+        List<CsvException> exceptions = csvToBean.getCapturedExceptions();
+        for (int i = alreadyReported; i < exceptions.size(); i++) {
+            CsvException e = exceptions.get(i);
+            handler.onError(e.getLineNumber(), e.getMessage());
+        }
+        return exceptions.size();
+    }
+
+    private void readXlsx(InputStreamSource file, RowHandler handler) throws Exception {
+        Path tempFile = Files.createTempFile("product-import-", ".xlsx");
+        try {
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader xssfReader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = xssfReader.getStylesTable();
+                Iterator<InputStream> sheets = xssfReader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            styles, strings, new XlsxRowCollector(handler), RAW_NUMBER_FORMATTER, false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void readXls(InputStreamSource file, RowHandler handler) throws Exception {
+        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Iterator<Row> rowIterator = sheet.iterator();
+
+            Map<String, Integer> headerMap = new HashMap<>();
+            if (rowIterator.hasNext()) {
+                headerMap = readHeaders(rowIterator.next());
+            }
+
+            while (rowIterator.hasNext()) {
+                handler.onRow(toCsvRequest(rowIterator.next(), headerMap));
+            }
+        }
+    }
+
+    /**
+     * Maps lower-cased header names to their column index.
+     */
+    public static Map<String, Integer> readHeaders(Row headerRow) {
+        Map<String, Integer> headerMap = new HashMap<>();
+        for (Cell cell : headerRow) {
+            headerMap.put(cell.getStringCellValue().toLowerCase().trim(), cell.getColumnIndex());
+        }
+        return headerMap;
+    }
+
+    /**
+     * Builds a CSV request from a workbook row using the header positions.
+     */
+    public static ProductCSVRequest toCsvRequest(Row row, Map<String, Integer> headerMap) {
+        ProductCSVRequest csvRequest = new ProductCSVRequest();
+        csvRequest.setName(getCellValueAsString(row, headerMap.get("name")));
+        csvRequest.setDescription(getCellValueAsString(row, headerMap.get("description")));
+        csvRequest.setPrice(getCellValueAsBigDecimal(row, headerMap.get("price")));
+        csvRequest.setUnitPrice(getCellValueAsBigDecimal(row, headerMap.get("unit_price")));
+        csvRequest.setStock(getCellValueAsLong(row, headerMap.get("stock")));
+        csvRequest.setSku(getCellValueAsString(row, headerMap.get("sku")));
+        csvRequest.setBarcode(getCellValueAsString(row, headerMap.get("barcode")));
+        csvRequest.setBrand(getCellValueAsString(row, headerMap.get("brand")));
+        csvRequest.setImgURL(getCellValueAsString(row, headerMap.get("img_url")));
+        csvRequest.setCategories(getCellValueAsString(row, headerMap.get("categories")));
+        return csvRequest;
+    }
+
+    private static ProductCSVRequest toCsvRequest(Function<String, String> values) {
+        ProductCSVRequest csvRequest = new ProductCSVRequest();
+        csvRequest.setName(values.apply("name"));
+        csvRequest.setDescription(values.apply("description"));
+        csvRequest.setPrice(parseBigDecimal(values.apply("price")));
+        csvRequest.setUnitPrice(parseBigDecimal(values.apply("unit_price")));
+        csvRequest.setStock(parseLong(values.apply("stock")));
+        csvRequest.setSku(values.apply("sku"));
+        csvRequest.setBarcode(values.apply("barcode"));
+        csvRequest.setBrand(values.apply("brand"));
+        csvRequest.setImgURL(values.apply("img_url"));
+        csvRequest.setCategories(values.apply("categories"));
+        return csvRequest;
+    }
+
+    public static String getCellValueAsString(Row row, Integer columnIndex) {
+        if (columnIndex == null)
+            return null;
+        Cell cell = row.getCell(columnIndex);
+        if (cell == null)
+            return null;
+
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                return String.valueOf((long) cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            default:
+                return null;
+        }
+    }
+
+    public static BigDecimal getCellValueAsBigDecimal(Row row, Integer columnIndex) {
+        if (columnIndex == null)
+            return null;
+        Cell cell = row.getCell(columnIndex);
+        if (cell == null)
+            return null;
+
+        if (cell.getCellType() == CellType.NUMERIC) {
+            return BigDecimal.valueOf(cell.getNumericCellValue());
+        } else if (cell.getCellType() == CellType.STRING) {
+            return parseBigDecimal(cell.getStringCellValue());
+        }
+        return null;
+    }
+
+    public static Long getCellValueAsLong(Row row, Integer columnIndex) {
+        if (columnIndex == null)
+            return null;
+        Cell cell = row.getCell(columnIndex);
+        if (cell == null)
+            return null;
+
+        if (cell.getCellType() == CellType.NUMERIC) {
+            return (long) cell.getNumericCellValue();
+        } else if (cell.getCellType() == CellType.STRING) {
+            try {
+                return Long.parseLong(cell.getStringCellValue());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal parseBigDecimal(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        BigDecimal number = parseBigDecimal(value);
+        return number == null ? null : number.longValue();
+    }
+
+    /**
+     * Collects the cells of one SAX row at a time, using the first row as header.
+     */
+    private static final class XlsxRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final Map<Integer, String> headers = new HashMap<>();
+        private final Map<String, String> values = new HashMap<>();
+        private boolean headerRow = true;
+        private int currentColumn = -1;
+
+        private XlsxRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            currentColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headerRow) {
+                headerRow = false;
+                return;
+            }
+            handler.onRow(toCsvRequest(values::get));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            currentColumn = cellReference != null
+                    ? new CellReference(cellReference).getCol()
+                    : currentColumn + 1;
+            if (headerRow) {
+                if (formattedValue != null) {
+                    headers.put(currentColumn, formattedValue.toLowerCase().trim());
+                }
+                return;
+            }
+            String header = headers.get(currentColumn);
+            if (header != null) {
+                values.put(header, formattedValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.stockify.model.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.stockify.dto.response.BulkItemResponse;
+import org.stockify.dto.response.ImportJobResponse;
+import org.stockify.model.enums.ImportJobStatus;
+import org.stockify.model.exception.NotFoundException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs product imports in the background and keeps track of their progress.
+ * <p>
+ * The uploaded file is copied to a temporary file before the request returns, since the
+ * multipart upload is discarded once the request completes. Jobs run on the dedicated
+ * {@code productImportExecutor}. Their state is kept in memory and removed once the
+ * retention period has passed.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ProductImportJobService {
+
+    private final ProductService productService;
+    private final TaskExecutor importExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${product.import.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public ProductImportJobService(ProductService productService,
+                                   @Qualifier("productImportExecutor") TaskExecutor importExecutor) {
+        this.productService = productService;
+        this.importExecutor = importExecutor;
+    }
+
+    /**
+     * Stores the file and queues its import.
+     *
+     * @param file the CSV or Excel file to import
+     * @return the initial status of the job
+     * @throws IOException if the file could not be stored
+     * @throws ResponseStatusException with 503 if the import queue is full
+     */
+    public ImportJobResponse submit(MultipartFile file) throws IOException {
+        Path stored = Files.createTempFile("product-import-job-", ".upload");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, stored, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        jobs.put(job.id, job);
+        try {
+            importExecutor.execute(() -> run(job, stored));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(stored);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many imports in progress, try again later");
+        }
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getStatus(String jobId) {
+        return findJob(jobId).toResponse();
+    }
+
+    /**
+     * Returns a page of the per-row results collected so far, in file order.
+     */
+    public Page<BulkItemResponse> getResults(String jobId, Pageable pageable) {
+        ImportJob job = findJob(jobId);
+        synchronized (job.results) {
+            int total = job.results.size();
+            int from = (int) Math.min(pageable.getOffset(), total);
+            int to = Math.min(from + pageable.getPageSize(), total);
+            return new PageImpl<>(new ArrayList<>(job.results.subList(from, to)), pageable, total);
+        }
+    }
+
+    @Scheduled(fixedDelay = 300_000)
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private void run(ImportJob job, Path stored) {
+        job.start();
+        try {
+            productService.importProducts(job.filename, new FileSystemResource(stored), job::record);
+            job.finish(ImportJobStatus.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Product import job {} failed", job.id, e);
+            job.finish(ImportJobStatus.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(stored);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", stored, e);
+            }
+        }
+    }
+
+    private ImportJob findJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("Import job with ID " + jobId + " not found");
+        }
+        return job;
+    }
+
+    private static final class ImportJob {
+
+        private final String id;
+        private final String filename;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<BulkItemResponse> results = new ArrayList<>();
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String failureMessage;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private int created;
+        private int skipped;
+        private int errors;
+
+        private ImportJob(String id, String filename) {
+            this.id = id;
+            this.filename = filename;
+        }
+
+        private void start() {
+            startedNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+            status = ImportJobStatus.RUNNING;
+        }
+
+        private void record(List<BulkItemResponse> chunk) {
+            synchronized (results) {
+                results.addAll(chunk);
+                for (BulkItemResponse result : chunk) {
+                    switch (result.getStatus()) {
+                        case "CREATED" -> created++;
+                        case "SKIPPED" -> skipped++;
+                        default -> errors++;
+                    }
+                }
+            }
+        }
+
+        private void finish(ImportJobStatus finalStatus, String message) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            failureMessage = message;
+            status = finalStatus;
+        }
+
+        private ImportJobResponse toResponse() {
+            synchronized (results) {
+                int processed = results.size();
+                return new ImportJobResponse(id, filename, status, processed, created, skipped, errors,
+                        rowsPerSecond(processed), submittedAt, startedAt, finishedAt, failureMessage);
+            }
+        }
+
+        private double rowsPerSecond(int processed) {
+            if (startedAt == null) {
+                return 0;
+            }
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = Duration.ofNanos(end - startedNanos).toMillis() / 1000.0;
+            return seconds > 0 ? processed / seconds : 0;
+        }
+    }
+}
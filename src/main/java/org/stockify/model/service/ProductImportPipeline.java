@@ -0,0 +1,138 @@
+package org.stockify.model.service;
+
+import org.stockify.dto.request.product.ProductCSVRequest;
+import org.stockify.dto.request.product.ProductRequest;
+import org.stockify.dto.response.BulkItemResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded producer/consumer hand-off between the file reader and the batched writer.
+ * <p>
+ * The reader runs on its own thread and groups rows into chunks; once {@code capacity}
+ * chunks are waiting it blocks until the writer catches up. Heap usage therefore
+ * depends on the chunk size, not on the size of the uploaded file.
+ * </p>
+ */
+public class ProductImportPipeline implements ProductFileReader.RowHandler {
+
+    /**
+     * Reads the source file, pushing rows into the given handler.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void readInto(ProductFileReader.RowHandler handler) throws Exception;
+    }
+
+    private static final List<ProductRequest> END_OF_INPUT = new ArrayList<>(0);
+
+    private final int chunkSize;
+    private final BlockingQueue<List<ProductRequest>> queue;
+    private final Queue<BulkItemResponse> parseErrors = new ConcurrentLinkedQueue<>();
+    private final Function<ProductCSVRequest, ProductRequest> rowMapper;
+    private List<ProductRequest> pending;
+
+    public ProductImportPipeline(int chunkSize, int capacity, Function<ProductCSVRequest, ProductRequest> rowMapper) {
+        this.chunkSize = chunkSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.rowMapper = rowMapper;
+        this.pending = new ArrayList<>(chunkSize);
+    }
+
+    @Override
+    public void onRow(ProductCSVRequest row) {
+        pending.add(rowMapper.apply(row));
+        if (pending.size() >= chunkSize) {
+            handOff(pending);
+            pending = new ArrayList<>(chunkSize);
+        }
+    }
+
+    @Override
+    public void onError(long lineNumber, String message) {
+        parseErrors.add(new BulkItemResponse(
+                "Row " + lineNumber,
+                "ERROR",
+                "Error parsing line " + lineNumber + ": " + message));
+    }
+
+    /**
+     * Reads the source on a separate thread and writes every chunk on the calling thread.
+     *
+     * @param source   the file reader
+     * @param writer   persists one chunk and returns its per-row results
+     * @param listener receives the results of every chunk, including parsing errors
+     * @throws Exception if the source could not be read
+     */
+    public void run(RowSource source,
+                    Function<List<ProductRequest>, List<BulkItemResponse>> writer,
+                    Consumer<List<BulkItemResponse>> listener) throws Exception {
+        AtomicReference<Exception> readFailure = new AtomicReference<>();
+        Thread reader = Thread.ofVirtual().name("product-import-reader").start(() -> {
+            try {
+                source.readInto(this);
+                if (!pending.isEmpty()) {
+                    handOff(pending);
+                }
+                handOff(END_OF_INPUT);
+            } catch (CancellationException e) {
+                // The writer gave up; nobody is waiting for more chunks.
+            } catch (Exception e) {
+                readFailure.set(e);
+                try {
+                    handOff(END_OF_INPUT);
+                } catch (CancellationException ignored) {
+                    // Same as above.
+                }
+            }
+        });
+
+        try {
+            while (true) {
+                List<ProductRequest> chunk = queue.take();
+                if (chunk == END_OF_INPUT) {
+                    break;
+                }
+                listener.accept(writer.apply(chunk));
+                drainParseErrors(listener);
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            reader.interrupt();
+            throw e;
+        }
+        drainParseErrors(listener);
+
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+    }
+
+    private void handOff(List<ProductRequest> chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Product import was cancelled");
+        }
+    }
+
+    private void drainParseErrors(Consumer<List<BulkItemResponse>> listener) {
+        List<BulkItemResponse> errors = new ArrayList<>();
+        BulkItemResponse error;
+        while ((error = parseErrors.poll()) != null) {
+            errors.add(error);
+        }
+        if (!errors.isEmpty()) {
+            listener.accept(errors);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.stockify.model.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.stockify.dto.request.product.ProductCSVRequest;
+import org.stockify.dto.request.product.ProductRequest;
+import org.stockify.model.mapper.ProductMapper;
+import org.stockify.model.projections.ProductKeySummary;
+import org.stockify.model.repository.ProductRepository;
+import org.stockify.util.StringNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates the rows of an import preview.
+ * <p>
+ * The keys already present in the database are loaded up front in a few batched queries.
+ * Rows are then validated in parallel on the fork-join pool. Each chunk records the first
+ * row index of every name, SKU and barcode it sees. The chunk maps are merged by keeping the
+ * lowest index, so "Duplicate in file" always points at the same rows as a sequential pass
+ * would, whatever order the chunks finish in.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPreviewValidator {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int KEY_QUERY_SIZE = 1_000;
+    private static final String DUPLICATE_IN_FILE = "Duplicate in file";
+    private static final String EXISTS_IN_DATABASE = "Already exists in database";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Validator validator;
+
+    /**
+     * Validates every row and returns the errors of each one, keyed by field, in row order.
+     *
+     * @param rows the parsed rows of the file
+     * @return one error map per row; empty when the row is valid
+     */
+    public List<Map<String, String>> validate(List<ProductCSVRequest> rows) {
+        ExistingKeys existing = loadExistingKeys(rows);
+
+        List<Map<String, String>> errors = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            errors.add(new HashMap<>());
+        }
+
+        FirstOccurrences first = ForkJoinPool.commonPool()
+                .invoke(new ValidationTask(rows, errors, existing, 0, rows.size()));
+
+        for (int i = 0; i < rows.size(); i++) {
+            ProductCSVRequest dto = rows.get(i);
+            Map<String, String> rowErrors = errors.get(i);
+            if (!isBlank(dto.getName()) && first.names.get(StringNormalizer.normalize(dto.getName())) != i) {
+                rowErrors.put("name", DUPLICATE_IN_FILE);
+            }
+            if (!isBlank(dto.getSku()) && first.skus.get(dto.getSku()) != i) {
+                rowErrors.put("sku", DUPLICATE_IN_FILE);
+            }
+            if (!isBlank(dto.getBarcode()) && first.barcodes.get(dto.getBarcode()) != i) {
+                rowErrors.put("barcode", DUPLICATE_IN_FILE);
+            }
+        }
+        return errors;
+    }
+
+    private ExistingKeys loadExistingKeys(List<ProductCSVRequest> rows) {
+        Set<String> names = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        Set<String> barcodes = new HashSet<>();
+        for (ProductCSVRequest dto : rows) {
+            if (!isBlank(dto.getName())) {
+                names.add(dto.getName());
+            }
+            if (!isBlank(dto.getSku())) {
+                skus.add(dto.getSku());
+            }
+            if (!isBlank(dto.getBarcode())) {
+                barcodes.add(dto.getBarcode());
+            }
+        }
+
+        ExistingKeys existing = new ExistingKeys();
+        List<List<String>> nameSlices = slice(names);
+        List<List<String>> skuSlices = slice(skus);
+        List<List<String>> barcodeSlices = slice(barcodes);
+        int queries = Math.max(nameSlices.size(), Math.max(skuSlices.size(), barcodeSlices.size()));
+        for (int i = 0; i < queries; i++) {
+            List<ProductKeySummary> found = productRepository.findKeysByNamesOrSkusOrBarcodes(
+                    sliceAt(nameSlices, i), sliceAt(skuSlices, i), sliceAt(barcodeSlices, i));
+            for (ProductKeySummary key : found) {
+                existing.names.add(key.getName());
+                if (key.getSku() != null) {
+                    existing.skus.add(key.getSku());
+                }
+                if (key.getBarcode() != null) {
+                    existing.barcodes.add(key.getBarcode());
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static List<List<String>> slice(Set<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        List<List<String>> slices = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += KEY_QUERY_SIZE) {
+            slices.add(all.subList(from, Math.min(from + KEY_QUERY_SIZE, all.size())));
+        }
+        return slices;
+    }
+
+    private static List<String> sliceAt(List<List<String>> slices, int index) {
+        return index < slices.size() ? slices.get(index) : List.of();
+    }
+
+    private void validateRow(ProductCSVRequest dto, Map<String, String> errors, ExistingKeys existing) {
+        // Required fields check
+        if (isBlank(dto.getName())) {
+            errors.put("name", "Name is required");
+        } else if (existing.names.contains(dto.getName())) {
+            errors.put("name", EXISTS_IN_DATABASE);
+        }
+
+        if (dto.getPrice() == null) {
+            errors.put("price", "Price is required");
+        }
+        if (dto.getStock() == null) {
+            errors.put("stock", "Stock is required");
+        }
+
+        if (isBlank(dto.getSku())) {
+            errors.put("sku", "SKU is required");
+        } else if (existing.skus.contains(dto.getSku())) {
+            errors.put("sku", EXISTS_IN_DATABASE);
+        }
+
+        if (isBlank(dto.getBarcode())) {
+            errors.put("barcode", "Barcode is required");
+        } else if (existing.barcodes.contains(dto.getBarcode())) {
+            errors.put("barcode", EXISTS_IN_DATABASE);
+        }
+
+        ProductRequest request = productMapper.toRequest(dto);
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<ProductRequest> v : violations) {
+            errors.putIfAbsent(v.getPropertyPath().toString(), v.getMessage());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class ExistingKeys {
+        private final Set<String> names = new HashSet<>();
+        private final Set<String> skus = new HashSet<>();
+        private final Set<String> barcodes = new HashSet<>();
+    }
+
+    /**
+     * First row index of every key seen in a range of rows.
+     */
+    private static final class FirstOccurrences {
+        private final Map<String, Integer> names = new HashMap<>();
+        private final Map<String, Integer> skus = new HashMap<>();
+        private final Map<String, Integer> barcodes = new HashMap<>();
+
+        private FirstOccurrences merge(FirstOccurrences other) {
+            other.names.forEach((key, index) -> names.merge(key, index, Math::min));
+            other.skus.forEach((key, index) -> skus.merge(key, index, Math::min));
+            other.barcodes.forEach((key, index) -> barcodes.merge(key, index, Math::min));
+            return this;
+        }
+    }
+
+    private final class ValidationTask extends RecursiveTask<FirstOccurrences> {
+
+        private final List<ProductCSVRequest> rows;
+        private final List<Map<String, String>> errors;
+        private final ExistingKeys existing;
+        private final int from;
+        private final int to;
+
+        private ValidationTask(List<ProductCSVRequest> rows, List<Map<String, String>> errors,
+                               ExistingKeys existing, int from, int to) {
+            this.rows = rows;
+            this.errors = errors;
+            this.existing = existing;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected FirstOccurrences compute() {
+            if (to - from <= CHUNK_SIZE) {
+                FirstOccurrences first = new FirstOccurrences();
+                for (int i = from; i < to; i++) {
+                    ProductCSVRequest dto = rows.get(i);
+                    validateRow(dto, errors.get(i), existing);
+                    if (!isBlank(dto.getName())) {
+                        first.names.putIfAbsent(StringNormalizer.normalize(dto.getName()), i);
+                    }
+                    if (!isBlank(dto.getSku())) {
+                        first.skus.putIfAbsent(dto.getSku(), i);
+                    }
+                    if (!isBlank(dto.getBarcode())) {
+                        first.barcodes.putIfAbsent(dto.getBarcode(), i);
+                    }
+                }
+                return first;
+            }
+
+            int middle = (from + to) >>> 1;
+            ValidationTask left = new ValidationTask(rows, errors, existing, from, middle);
+            ValidationTask right = new ValidationTask(rows, errors, existing, middle, to);
+            right.fork();
+            FirstOccurrences leftResult = left.compute();
+            return leftResult.merge(right.join());
+        }
+    }
+}
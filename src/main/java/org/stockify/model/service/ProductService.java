@@ -1,12 +1,13 @@
 package org.stockify.model.service;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,37 +22,40 @@ import org.stockify.dto.request.product.ProductRequest;
 import org.stockify.dto.response.BulkItemResponse;
 import org.stockify.dto.response.BulkProductResponse;
 import org.stockify.dto.response.CategoryResponse;
+import org.stockify.dto.response.CursorPageResponse;
 import org.stockify.dto.response.ProductResponse;
 import org.stockify.model.entity.CategoryEntity;
 import org.stockify.model.entity.ProductEntity;
 import org.stockify.model.entity.ProviderEntity;
+import org.stockify.model.event.ProductCatalogChangedEvent;
 import org.stockify.model.event.ProductDiscountUpdatedEvent;
 import org.stockify.model.event.ProductStockUpdatedEvent;
 import org.stockify.model.exception.DuplicatedUniqueConstraintException;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.CategoryMapper;
 import org.stockify.model.mapper.ProductMapper;
+import org.stockify.model.projections.ProductCategoryName;
+import org.stockify.model.projections.ProductProviderId;
 import org.stockify.model.repository.CategoryRepository;
+import org.stockify.model.repository.KeysetPage;
+import org.stockify.model.repository.KeysetPager;
 import org.stockify.model.repository.ProductRepository;
 import org.stockify.model.repository.ProviderRepository;
 import org.stockify.model.specification.ProductSpecifications;
 import org.stockify.model.specification.SpecificationBuilder;
 import org.stockify.util.StringNormalizer;
 
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.poi.ss.usermodel.*;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Iterator;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
 import org.stockify.dto.response.ProductPreviewResponse;
 
 /**
@@ -73,7 +77,15 @@ public class ProductService {
     private final CategoryMapper categoryMapper;
     private final ProviderRepository providerRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final Validator validator;
+    private final ProductBatchService productBatchService;
+    private final ProductFileReader productFileReader;
+    private final ProductPreviewValidator productPreviewValidator;
+    private final KeysetPager keysetPager;
+
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int IMPORT_QUEUE_CAPACITY = 4;
+    private static final Set<String> CURSOR_SORT_PROPERTIES =
+            Set.of("name", "price", "stock", "soldQuantity", "discountPercentage", "id");
 
     /**
      * Finds a product by its ID.
@@ -95,78 +107,101 @@ public class ProductService {
      * @throws DuplicatedUniqueConstraintException if a product with the same barcode or SKU already exists
      */
     public ProductResponse save(ProductRequest request) throws DuplicatedUniqueConstraintException {
-        ProductEntity existing = null;
         String normalizedName = StringNormalizer.normalize(request.name());
         String normalizedBarcode = StringNormalizer.normalize(request.barcode());
-        List<ProductEntity> allProducts = productRepository.findAll();
-        for (ProductEntity p : allProducts) {
-            if (p.getName() != null && StringNormalizer.normalize(p.getName()).equals(normalizedName)
-                    && Boolean.TRUE.equals(p.getDeleted())) {
-                existing = p;
-                break;
-            }
-            if (existing == null && p.getBarcode() != null && normalizedBarcode != null && StringNormalizer.normalize(p.getBarcode()).equals(normalizedBarcode)
-                    && Boolean.TRUE.equals(p.getDeleted())) {
-                existing = p;
-                break;
-            }
-        }
+        ProductEntity existing = productRepository
+                .findDeletedByNormalizedNameOrBarcode(normalizedName, normalizedBarcode)
+                .stream()
+                .findFirst()
+                .orElse(null);
         if (existing != null) {
             existing.setDeleted(false);
             existing.setCategories(resolveCategories(request.categories()));
             productMapper.updateEntityFromRequest(request, existing);
-            return productMapper.toResponse(productRepository.save(existing));
+            ProductEntity revived = productRepository.save(existing);
+            publishCatalogChange(revived);
+            return productMapper.toResponse(revived);
         }
         ProductEntity product = productMapper.toEntity(request);
         product.setCategories(resolveCategories(request.categories()));
         product = productRepository.save(product);
+        publishCatalogChange(product);
         return productMapper.toResponse(product);
     }
 
     /**
      * Saves multiple products in a single batch operation.
+     * <p>
+     * Requests are persisted in chunks of {@value #BULK_CHUNK_SIZE}, each one in its own
+     * transaction with batched inserts. If a chunk cannot be written as a whole, its rows
+     * are retried one by one so every item still gets its own result.
+     * </p>
      *
      * @param requests a list of DTOs representing the products to create
      * @return a response object summarizing the operation, including counts of created, skipped, and errored items,
      *         as well as detailed results per item
      */
     public BulkProductResponse saveAll(List<ProductRequest> requests) {
-        List<BulkItemResponse> results = new ArrayList<>();
-        int created = 0, skipped = 0, error = 0;
+        List<BulkItemResponse> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += BULK_CHUNK_SIZE) {
+            List<ProductRequest> chunk = requests.subList(from, Math.min(from + BULK_CHUNK_SIZE, requests.size()));
+            results.addAll(saveChunk(chunk));
+        }
+        return toBulkResponse(requests.size(), results);
+    }
+
+    private List<BulkItemResponse> saveChunk(List<ProductRequest> chunk) {
+        try {
+            return productBatchService.persistChunk(chunk);
+        } catch (RuntimeException ex) {
+            logger.warn("Batched save failed for a chunk of {} products, retrying row by row: {}",
+                    chunk.size(), ex.getMessage());
+            List<BulkItemResponse> results = new ArrayList<>(chunk.size());
+            for (ProductRequest req : chunk) {
+                results.add(saveReportingResult(req));
+            }
+            return results;
+        }
+    }
+
+    private BulkItemResponse saveReportingResult(ProductRequest req) {
+        try {
+            save(req);
+            return new BulkItemResponse(req.name(), "CREATED", null);
+        } catch (DataIntegrityViolationException ex) {
+            return new BulkItemResponse(
+                    req.name(),
+                    "SKIPPED",
+                    "Duplicated, item skipped");
+        } catch (DuplicatedUniqueConstraintException ex) {
+            return new BulkItemResponse(
+                    req.name(),
+                    "SKIPPED",
+                    ex.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return new BulkItemResponse(
+                    req.name(),
+                    "ERROR",
+                    "Invalid data: " + ex.getMessage());
+        } catch (Exception ex) {
+            logger.error("Unexpected error saving product {}: {}", req.name(), ex.getMessage(), ex);
+            return new BulkItemResponse(
+                    req.name(),
+                    "ERROR",
+                    "Unexpected error: " + ex.getMessage());
+        }
+    }
 
-        for (ProductRequest req : requests) {
-            try {
-                save(req);
-                created++;
-                results.add(new BulkItemResponse(req.name(), "CREATED", null));
-            } catch (DataIntegrityViolationException ex) {
-                skipped++;
-                results.add(new BulkItemResponse(
-                        req.name(),
-                        "SKIPPED",
-                        "Duplicated, item skipped"));
-            } catch (DuplicatedUniqueConstraintException ex) {
-                skipped++;
-                results.add(new BulkItemResponse(
-                        req.name(),
-                        "SKIPPED",
-                        ex.getMessage()));
-            } catch (IllegalArgumentException | IllegalStateException ex) {
-                error++;
-                results.add(new BulkItemResponse(
-                        req.name(),
-                        "ERROR",
-                        "Invalid data: " + ex.getMessage()));
-            } catch (Exception ex) {
-                error++;
-                logger.error("Unexpected error saving product {}: {}", req.name(), ex.getMessage(), ex);
-                results.add(new BulkItemResponse(
-                        req.name(),
-                        "ERROR",
-                        "Unexpected error: " + ex.getMessage()));
+    private BulkProductResponse toBulkResponse(int totalRequested, List<BulkItemResponse> results) {
+        int created = 0, skipped = 0, error = 0;
+        for (BulkItemResponse result : results) {
+            switch (result.getStatus()) {
+                case "CREATED" -> created++;
+                case "SKIPPED" -> skipped++;
+                default -> error++;
             }
         }
-        return new BulkProductResponse(requests.size(), created, skipped, error, results);
+        return new BulkProductResponse(totalRequested, created, skipped, error, results);
     }
 
     /**
@@ -178,311 +213,92 @@ public class ProductService {
      * @throws Exception if an error occurs while processing the file
      */
     public BulkProductResponse importProducts(MultipartFile file) throws Exception {
-        String filename = file.getOriginalFilename();
-        if (filename != null && (filename.endsWith(".xls") || filename.endsWith(".xlsx"))) {
-            return importProductsExcel(file);
-        }
-        return importProductsCsv(file);
+        List<BulkItemResponse> results = new ArrayList<>();
+        importProducts(file, results::addAll);
+        return toBulkResponse(results.size(), results);
     }
 
     /**
-     * Imports products from a CSV file.
+     * Streams a CSV or Excel file into the batched persistence path.
+     * <p>
+     * Rows are read on a separate thread and handed over in chunks of {@value #BULK_CHUNK_SIZE}
+     * through a bounded queue, so the file is never fully materialized in memory.
+     * Parsing errors are reported as {@code ERROR} results.
+     * </p>
      *
-     * @param file the CSV file containing product data
-     * @return a response summarizing the import operation including counts and
-     *         detailed results
-     * @throws Exception if an error occurs while processing the file
+     * @param file          the file containing product data
+     * @param chunkListener receives the per-row results of every processed chunk
+     * @throws Exception if an error occurs while reading the file
      */
-    public BulkProductResponse importProductsCsv(MultipartFile file) throws Exception {
-        InputStreamReader reader = new InputStreamReader(file.getInputStream());
-
-        com.opencsv.bean.CsvToBean<ProductCSVRequest> csvToBean = new CsvToBeanBuilder<ProductCSVRequest>(reader)
-                .withType(ProductCSVRequest.class)
-                .withIgnoreLeadingWhiteSpace(true)
-                .withThrowExceptions(false)
-                .build();
-
-        List<ProductCSVRequest> csvDtos = csvToBean.parse();
-        List<com.opencsv.exceptions.CsvException> exceptions = csvToBean.getCapturedExceptions();
-
-        List<ProductRequest> requests = csvDtos.stream()
-                .map(productMapper::toRequest)
-                .collect(Collectors.toList());
-
-        BulkProductResponse response = saveAll(requests);
-
-        // Process parsing errors
-        for (com.opencsv.exceptions.CsvException e : exceptions) {
-            String errorMessage = "Error parsing line " + e.getLineNumber() + ": " + e.getMessage();
-            response.getResults().add(new BulkItemResponse(
-                    "Row " + e.getLineNumber(),
-                    "ERROR",
-                    errorMessage));
-        }
-
-        // Reconstruct response with updated error count
-        if (!exceptions.isEmpty()) {
-            return new BulkProductResponse(
-                    response.getTotalRequested() + exceptions.size(),
-                    response.getTotalCreated(),
-                    response.getTotalSkipped(),
-                    response.getTotalError() + exceptions.size(),
-                    response.getResults());
-        }
-
-        return response;
+    public void importProducts(MultipartFile file, Consumer<List<BulkItemResponse>> chunkListener) throws Exception {
+        importProducts(file.getOriginalFilename(), file, chunkListener);
     }
 
-    private BulkProductResponse importProductsExcel(MultipartFile file) throws Exception {
-        List<ProductRequest> requests = new ArrayList<>();
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-
-            Map<String, Integer> headerMap = new HashMap<>();
-            if (rowIterator.hasNext()) {
-                Row headerRow = rowIterator.next();
-                for (Cell cell : headerRow) {
-                    headerMap.put(cell.getStringCellValue().toLowerCase().trim(), cell.getColumnIndex());
-                }
-            }
-
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                ProductCSVRequest csvRequest = new ProductCSVRequest();
-
-                csvRequest.setName(getCellValueAsString(row, headerMap.get("name")));
-                csvRequest.setDescription(getCellValueAsString(row, headerMap.get("description")));
-                csvRequest.setPrice(getCellValueAsBigDecimal(row, headerMap.get("price")));
-                csvRequest.setUnitPrice(getCellValueAsBigDecimal(row, headerMap.get("unit_price")));
-                csvRequest.setStock(getCellValueAsLong(row, headerMap.get("stock")));
-                csvRequest.setSku(getCellValueAsString(row, headerMap.get("sku")));
-                csvRequest.setBarcode(getCellValueAsString(row, headerMap.get("barcode")));
-                csvRequest.setBrand(getCellValueAsString(row, headerMap.get("brand")));
-                csvRequest.setImgURL(getCellValueAsString(row, headerMap.get("img_url")));
-                csvRequest.setCategories(getCellValueAsString(row, headerMap.get("categories")));
-
-                requests.add(productMapper.toRequest(csvRequest));
-            }
-        }
-        return saveAll(requests);
+    /**
+     * Streams a stored CSV or Excel file into the batched persistence path.
+     *
+     * @param filename      original name of the file, used to detect its format
+     * @param file          the file contents
+     * @param chunkListener receives the per-row results of every processed chunk
+     * @throws Exception if an error occurs while reading the file
+     */
+    public void importProducts(String filename, InputStreamSource file,
+            Consumer<List<BulkItemResponse>> chunkListener) throws Exception {
+        ProductImportPipeline pipeline = new ProductImportPipeline(
+                BULK_CHUNK_SIZE, IMPORT_QUEUE_CAPACITY, productMapper::toRequest);
+        pipeline.run(handler -> productFileReader.read(filename, file, handler), this::saveChunk, chunkListener);
     }
 
     /**
      * Previews products from a CSV or Excel file.
+     * <p>
+     * Every row of the file is validated, including duplicates within the file and
+     * against the database. See {@link ProductPreviewValidator}.
+     * </p>
      *
      * @param file the file containing product data
      * @return a list of maps representing the preview data
      * @throws Exception if an error occurs while processing the file
      */
     public List<ProductPreviewResponse> previewProducts(MultipartFile file) throws Exception {
-        String filename = file.getOriginalFilename();
-        if (filename != null && (filename.endsWith(".xls") || filename.endsWith(".xlsx"))) {
-            return previewProductsExcel(file);
-        }
-        return previewProductsCsv(file);
-    }
-
-    private List<ProductPreviewResponse> previewProductsCsv(MultipartFile file) throws Exception {
-        InputStreamReader reader = new InputStreamReader(file.getInputStream());
-        List<ProductCSVRequest> csvDtos = new CsvToBeanBuilder<ProductCSVRequest>(reader)
-                .withType(ProductCSVRequest.class)
-                .withIgnoreLeadingWhiteSpace(true)
-                .build()
-                .parse();
-
-        List<ProductPreviewResponse> previewData = new ArrayList<>();
-        Set<String> seenNames = new HashSet<>();
-        Set<String> seenSkus = new HashSet<>();
-        Set<String> seenBarcodes = new HashSet<>();
-
-        int count = 0;
-        for (ProductCSVRequest dto : csvDtos) {
-            if (count >= 10)
-                break;
-            Map<String, String> row = new HashMap<>();
-            row.put("name", dto.getName());
-            row.put("description", dto.getDescription());
-            row.put("price", String.valueOf(dto.getPrice()));
-            row.put("unit_price", String.valueOf(dto.getUnitPrice()));
-            row.put("stock", String.valueOf(dto.getStock()));
-            row.put("sku", dto.getSku());
-            row.put("barcode", dto.getBarcode());
-            row.put("brand", dto.getBrand());
-            row.put("img_url", dto.getImgURL());
-            row.put("categories", dto.getCategories());
-
-            Map<String, String> errors = new HashMap<>();
-            validatePreviewItem(dto, errors, seenNames, seenSkus, seenBarcodes);
-
-            previewData.add(new ProductPreviewResponse(row, errors));
-            count++;
-        }
-        return previewData;
-    }
-
-    private void validatePreviewItem(ProductCSVRequest dto, Map<String, String> errors, Set<String> seenNames,
-            Set<String> seenSkus, Set<String> seenBarcodes) {
-        // Required fields check
-        if (dto.getName() == null || dto.getName().isBlank()) {
-            errors.put("name", "Name is required");
-        } else {
-            String normalizedName = StringNormalizer.normalize(dto.getName());
-            if (seenNames.contains(normalizedName)) {
-                errors.put("name", "Duplicate in file");
-            } else if (productRepository.existsByName(dto.getName())) {
-                errors.put("name", "Already exists in database");
-            }
-            seenNames.add(normalizedName);
-        }
-
-        if (dto.getPrice() == null) {
-            errors.put("price", "Price is required");
-        }
-        if (dto.getStock() == null) {
-            errors.put("stock", "Stock is required");
-        }
-
-        if (dto.getSku() == null || dto.getSku().isBlank()) {
-            errors.put("sku", "SKU is required");
-        } else {
-            if (seenSkus.contains(dto.getSku())) {
-                errors.put("sku", "Duplicate in file");
-            } else if (productRepository.existsBySku(dto.getSku())) {
-                errors.put("sku", "Already exists in database");
+        List<ProductCSVRequest> rows = new ArrayList<>();
+        List<ProductPreviewResponse> parseErrors = new ArrayList<>();
+        productFileReader.read(file, new ProductFileReader.RowHandler() {
+            @Override
+            public void onRow(ProductCSVRequest row) {
+                rows.add(row);
             }
-            seenSkus.add(dto.getSku());
-        }
-
-        if (dto.getBarcode() == null || dto.getBarcode().isBlank()) {
-            errors.put("barcode", "Barcode is required");
-        } else {
-            if (seenBarcodes.contains(dto.getBarcode())) {
-                errors.put("barcode", "Duplicate in file");
-            } else if (productRepository.existsByBarcode(dto.getBarcode())) {
-                errors.put("barcode", "Already exists in database");
-            }
-            seenBarcodes.add(dto.getBarcode());
-        }
 
-        ProductRequest request = productMapper.toRequest(dto);
-        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
-        for (ConstraintViolation<ProductRequest> v : violations) {
-            if (!errors.containsKey(v.getPropertyPath().toString())) {
-                errors.put(v.getPropertyPath().toString(), v.getMessage());
+            @Override
+            public void onError(long lineNumber, String message) {
+                parseErrors.add(new ProductPreviewResponse(new HashMap<>(),
+                        Map.of("row", "Error parsing line " + lineNumber + ": " + message)));
             }
-        }
-    }
-
-    private List<ProductPreviewResponse> previewProductsExcel(MultipartFile file) throws Exception {
-        List<ProductPreviewResponse> previewData = new ArrayList<>();
-        Set<String> seenNames = new HashSet<>();
-        Set<String> seenSkus = new HashSet<>();
-        Set<String> seenBarcodes = new HashSet<>();
+        });
 
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
+        List<Map<String, String>> errors = productPreviewValidator.validate(rows);
 
-            Map<String, Integer> headerMap = new HashMap<>();
-            List<String> headers = new ArrayList<>();
-
-            if (rowIterator.hasNext()) {
-                Row headerRow = rowIterator.next();
-                for (Cell cell : headerRow) {
-                    String header = cell.getStringCellValue().toLowerCase().trim();
-                    headerMap.put(header, cell.getColumnIndex());
-                    headers.add(header);
-                }
-            }
-
-            int count = 0;
-            while (rowIterator.hasNext() && count < 10) {
-                Row row = rowIterator.next();
-                Map<String, String> rowData = new HashMap<>();
-
-                for (String header : headers) {
-                    rowData.put(header, getCellValueAsString(row, headerMap.get(header)));
-                }
-
-                // Construct ProductCSVRequest for validation consistency
-                ProductCSVRequest csvRequest = new ProductCSVRequest();
-                csvRequest.setName(getCellValueAsString(row, headerMap.get("name")));
-                csvRequest.setDescription(getCellValueAsString(row, headerMap.get("description")));
-                csvRequest.setPrice(getCellValueAsBigDecimal(row, headerMap.get("price")));
-                csvRequest.setUnitPrice(getCellValueAsBigDecimal(row, headerMap.get("unit_price")));
-                csvRequest.setStock(getCellValueAsLong(row, headerMap.get("stock")));
-                csvRequest.setSku(getCellValueAsString(row, headerMap.get("sku")));
-                csvRequest.setBarcode(getCellValueAsString(row, headerMap.get("barcode")));
-                csvRequest.setBrand(getCellValueAsString(row, headerMap.get("brand")));
-                csvRequest.setImgURL(getCellValueAsString(row, headerMap.get("img_url")));
-                csvRequest.setCategories(getCellValueAsString(row, headerMap.get("categories")));
-
-                Map<String, String> errors = new HashMap<>();
-                validatePreviewItem(csvRequest, errors, seenNames, seenSkus, seenBarcodes);
-
-                previewData.add(new ProductPreviewResponse(rowData, errors));
-                count++;
-            }
+        List<ProductPreviewResponse> previewData = new ArrayList<>(rows.size() + parseErrors.size());
+        for (int i = 0; i < rows.size(); i++) {
+            previewData.add(new ProductPreviewResponse(toPreviewRow(rows.get(i)), errors.get(i)));
         }
+        previewData.addAll(parseErrors);
         return previewData;
     }
 
-    private String getCellValueAsString(Row row, Integer columnIndex) {
-        if (columnIndex == null)
-            return null;
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null)
-            return null;
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            default:
-                return null;
-        }
-    }
-
-    private BigDecimal getCellValueAsBigDecimal(Row row, Integer columnIndex) {
-        if (columnIndex == null)
-            return null;
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null)
-            return null;
-
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return BigDecimal.valueOf(cell.getNumericCellValue());
-        } else if (cell.getCellType() == CellType.STRING) {
-            try {
-                return new BigDecimal(cell.getStringCellValue());
-            } catch (NumberFormatException e) {
-                return null;
-            }
-        }
-        return null;
-    }
-
-    private Long getCellValueAsLong(Row row, Integer columnIndex) {
-        if (columnIndex == null)
-            return null;
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null)
-            return null;
-
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return (long) cell.getNumericCellValue();
-        } else if (cell.getCellType() == CellType.STRING) {
-            try {
-                return Long.parseLong(cell.getStringCellValue());
-            } catch (NumberFormatException e) {
-                return null;
-            }
-        }
-        return null;
+    private Map<String, String> toPreviewRow(ProductCSVRequest dto) {
+        Map<String, String> row = new HashMap<>();
+        row.put("name", dto.getName());
+        row.put("description", dto.getDescription());
+        row.put("price", String.valueOf(dto.getPrice()));
+        row.put("unit_price", String.valueOf(dto.getUnitPrice()));
+        row.put("stock", String.valueOf(dto.getStock()));
+        row.put("sku", dto.getSku());
+        row.put("barcode", dto.getBarcode());
+        row.put("brand", dto.getBrand());
+        row.put("img_url", dto.getImgURL());
+        row.put("categories", dto.getCategories());
+        return row;
     }
 
     /**
@@ -495,6 +311,7 @@ public class ProductService {
                 .orElseThrow(() -> new NotFoundException("Product with ID " + id + " not found"));
         product.setDeleted(true);
         productRepository.save(product);
+        publishCatalogChange(product);
     }
 
     /**
@@ -513,7 +330,7 @@ public class ProductService {
         product.setCategories(resolveCategories(request.categories()));
 
         ProductEntity savedEntity = productRepository.save(product);
-
+        publishCatalogChange(savedEntity);
 
         //Notification triggers
         stockTrigger(request,savedEntity,oldStock);
@@ -538,6 +355,7 @@ public class ProductService {
         productMapper.patchEntityFromRequest(request, product);
         product.setCategories(resolveCategories(request.categories()));
         ProductEntity savedEntity = productRepository.save(product);
+        publishCatalogChange(savedEntity);
 
         //Notification triggers
         stockTrigger(request,savedEntity,oldStock);
@@ -675,9 +493,7 @@ public class ProductService {
      * @return a paginated list of products associated with the provider
      */
     public Page<ProductResponse> findProductsByProviderId(Long providerID, Pageable pageable) {
-        Page<ProductResponse> page = productRepository
-                .findAllByProviders_Id(providerID, pageable)
-                .map(productMapper::toResponse);
+        Page<ProductResponse> page = toResponsePage(productRepository.findAllByProviders_Id(providerID, pageable));
 
         if (page.isEmpty()) {
             logger.warn("No products found for provider ID: {}", providerID);
@@ -699,14 +515,21 @@ public class ProductService {
             return new LinkedHashSet<>();
         }
 
-        return categoryNames.stream()
+        boolean[] created = {false};
+        Set<CategoryEntity> categories = categoryNames.stream()
                 .map(name -> categoryRepository.findByName(name)
                         .orElseGet(() -> {
                             CategoryEntity category = new CategoryEntity();
                             category.setName(name);
+                            created[0] = true;
                             return categoryRepository.save(category);
                         }))
                 .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (created[0]) {
+            // Only new categories require the suggestion index to reload them
+            eventPublisher.publishEvent(new ProductCatalogChangedEvent(List.of(), true));
+        }
+        return categories;
     }
 
     private ProductEntity getProductById(Long id) {
@@ -765,7 +588,51 @@ public class ProductService {
      *         each mapped to a ProductResponse DTO.
      */
     public Page<ProductResponse> findAll(Pageable pageable, ProductFilterRequest filterRequest) {
-        Specification<ProductEntity> spec = new SpecificationBuilder<ProductEntity>()
+        Specification<ProductEntity> spec = buildSpecification(filterRequest);
+        Pageable pageableWithSort = applyCustomSorts(pageable, filterRequest);
+        Page<ProductEntity> page = productRepository.findAll(spec, pageableWithSort);
+        if (page.isEmpty()) {
+            logger.warn("Products list is empty for pageable: {}", pageable);
+        }
+        return toResponsePage(page);
+    }
+
+    /**
+     * Finds products with keyset (cursor) pagination.
+     * <p>
+     * Applies the same filters as {@link #findAll(Pageable, ProductFilterRequest)}, but each page
+     * continues after the previous page's last row instead of using an offset. The total
+     * count is only computed when requested.
+     * </p>
+     *
+     * @param filterRequest the filters to apply
+     * @param sort          the sort property, one of {@code name}, {@code price}, {@code stock},
+     *                      {@code soldQuantity}, {@code discountPercentage} or {@code id}
+     * @param direction     the sort direction
+     * @param size          the page size
+     * @param after         the cursor of the previous page, {@code null} for the first page
+     * @param includeTotal  whether to compute the total number of matches
+     * @return the page with the cursor of the next one
+     */
+    public CursorPageResponse<ProductResponse> findAllByCursor(ProductFilterRequest filterRequest, String sort,
+            Sort.Direction direction, int size, String after, boolean includeTotal) {
+        if (!CURSOR_SORT_PROPERTIES.contains(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination can sort by " + CURSOR_SORT_PROPERTIES);
+        }
+        KeysetPage page = keysetPager.findIds(ProductEntity.class, buildSpecification(filterRequest),
+                sort, direction, size, after, includeTotal);
+
+        Map<Long, ProductEntity> byId = productRepository.findAllById(page.ids()).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+        List<ProductEntity> products = page.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        return new CursorPageResponse<>(toResponses(products), page.nextCursor(), page.nextCursor() != null,
+                page.totalElements());
+    }
+
+    private Specification<ProductEntity> buildSpecification(ProductFilterRequest filterRequest) {
+        return new SpecificationBuilder<ProductEntity>()
                 .add(filterRequest.getPrice() != null ? ProductSpecifications.byPrice(filterRequest.getPrice()) : null)
                 .add(filterRequest.getName() != null && !filterRequest.getName().isEmpty()
                         ? ProductSpecifications.byName(StringNormalizer.normalize(filterRequest.getName()))
@@ -845,12 +712,62 @@ public class ProductService {
                         ? ProductSpecifications.byInactive(filterRequest.getInactive().booleanValue())
                         : null)
                 .build();
-        Pageable pageableWithSort = applyCustomSorts(pageable, filterRequest);
-        Page<ProductEntity> page = productRepository.findAll(spec, pageableWithSort);
+    }
+
+    /**
+     * Maps a page of products, loading categories and providers for the whole page
+     * with one query each instead of initializing the lazy sets product by product.
+     */
+    private Page<ProductResponse> toResponsePage(Page<ProductEntity> page) {
         if (page.isEmpty()) {
-            logger.warn("Products list is empty for pageable: {}", pageable);
+            return page.map(productMapper::toResponse);
         }
-        return page.map(productMapper::toResponse);
+        return new PageImpl<>(toResponses(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private List<ProductResponse> toResponses(List<ProductEntity> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = products.stream().map(ProductEntity::getId).toList();
+
+        Map<Long, Set<String>> categories = new HashMap<>();
+        for (ProductCategoryName row : productRepository.findCategoryNamesByProductIds(ids)) {
+            categories.computeIfAbsent(row.getProductId(), id -> new LinkedHashSet<>()).add(row.getName());
+        }
+        Map<Long, Set<Long>> providers = new HashMap<>();
+        for (ProductProviderId row : productRepository.findProviderIdsByProductIds(ids)) {
+            providers.computeIfAbsent(row.getProductId(), id -> new LinkedHashSet<>()).add(row.getProviderId());
+        }
+
+        return products.stream()
+                .map(product -> productMapper.toResponse(
+                        product,
+                        categories.getOrDefault(product.getId(), new LinkedHashSet<>()),
+                        providers.getOrDefault(product.getId(), new LinkedHashSet<>())))
+                .toList();
+    }
+
+    /**
+     * Ranked free-text search over name, brand, SKU and barcode.
+     * <p>
+     * Served by the trigram index on the product search text, so "contains" and slightly
+     * misspelled terms are matched without scanning the table. Results are ordered by
+     * relevance; any sort in the pageable is ignored.
+     * </p>
+     *
+     * @param query    the text typed by the user
+     * @param pageable pagination information
+     * @return a page of matching products, best matches first
+     */
+    public Page<ProductResponse> search(String query, Pageable pageable) {
+        String term = StringNormalizer.normalize(query == null ? "" : query.trim());
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (term.isEmpty()) {
+            return Page.empty(unsorted);
+        }
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return toResponsePage(productRepository.searchRanked(term, "%" + escaped + "%", escaped + "%", unsorted));
     }
 
     private Pageable applyCustomSorts(Pageable pageable, ProductFilterRequest filterRequest) {
@@ -884,6 +801,11 @@ public class ProductService {
         return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), combinedSort);
     }
 
+    private void publishCatalogChange(ProductEntity product) {
+        // Categories created on the fly are announced by resolveCategories itself
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(List.of(product.getId()), false));
+    }
+
     private void stockTrigger(ProductRequest request, ProductEntity savedEntity, Long oldStock){
         if (request.stock() == null) return;
         long prev = oldStock == null ? 0L : oldStock;
@@ -0,0 +1,180 @@
+package org.stockify.model.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.stockify.dto.response.SuggestionResponse;
+import org.stockify.model.entity.CategoryEntity;
+import org.stockify.model.event.ProductCatalogChangedEvent;
+import org.stockify.model.projections.ProductSuggestionRow;
+import org.stockify.model.repository.CategoryRepository;
+import org.stockify.model.repository.ProductRepository;
+import org.stockify.util.StringNormalizer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over product and category names for storefront autocomplete.
+ * <p>
+ * Every normalized name and each of its words is a key in a sorted map, so a prefix lookup is
+ * a range scan over the keys starting with the typed text. The index is built once the
+ * application is ready and kept current through {@link ProductCatalogChangedEvent}, which
+ * the product and category write paths publish. Deleted and inactive products are left out.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestionIndex {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+
+    /** How many candidates are gathered per requested suggestion before ranking. */
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final NavigableMap<String, Set<Entry>> tokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> categories = new ConcurrentHashMap<>();
+
+    private record Entry(String type, Long id, String label, String normalizedLabel) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        for (ProductSuggestionRow row : productRepository.findAllSuggestionRows()) {
+            putProduct(row);
+        }
+        reloadCategories();
+        log.info("Suggestion index built with {} products and {} categories", products.size(), categories.size());
+    }
+
+    @TransactionalEventListener(
+            phase = TransactionPhase.AFTER_COMMIT,
+            fallbackExecution = true)
+    public void handleCatalogChange(ProductCatalogChangedEvent event) {
+        if (event.productIds() != null && !event.productIds().isEmpty()) {
+            Set<Long> pending = new LinkedHashSet<>(event.productIds());
+            for (ProductSuggestionRow row : productRepository.findSuggestionRowsByIds(pending)) {
+                putProduct(row);
+                pending.remove(row.getId());
+            }
+            pending.forEach(id -> remove(products, id));
+        }
+        if (event.categoriesChanged()) {
+            reloadCategories();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products and categories with a word starting with the prefix.
+     * Names that start with the prefix come first, then the rest alphabetically.
+     *
+     * @param prefix the text typed by the user
+     * @param limit  maximum number of suggestions
+     * @return the best suggestions, never {@code null}
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = StringNormalizer.normalize(prefix == null ? "" : prefix.trim());
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<Entry> candidates = new LinkedHashSet<>();
+        int maxCandidates = limit * CANDIDATE_FACTOR;
+        for (Set<Entry> entries : tokens.subMap(key, true, key + Character.MAX_VALUE, true).values()) {
+            candidates.addAll(entries);
+            if (candidates.size() >= maxCandidates) {
+                break;
+            }
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparing((Entry e) -> !e.normalizedLabel().startsWith(key))
+                        .thenComparing(Entry::normalizedLabel))
+                .limit(limit)
+                .map(e -> new SuggestionResponse(e.type(), e.id(), e.label()))
+                .toList();
+    }
+
+    private void putProduct(ProductSuggestionRow row) {
+        if (Boolean.TRUE.equals(row.getDeleted()) || Boolean.TRUE.equals(row.getInactive())) {
+            remove(products, row.getId());
+            return;
+        }
+        put(products, new Entry(PRODUCT, row.getId(), row.getName(), StringNormalizer.normalize(row.getName())));
+    }
+
+    private void reloadCategories() {
+        Map<Long, Entry> current = new HashMap<>();
+        for (CategoryEntity category : categoryRepository.findAll()) {
+            Long id = category.getId().longValue();
+            current.put(id, new Entry(CATEGORY, id, category.getName(), StringNormalizer.normalize(category.getName())));
+        }
+        for (Long id : new ArrayList<>(categories.keySet())) {
+            if (!current.containsKey(id)) {
+                remove(categories, id);
+            }
+        }
+        current.values().forEach(entry -> put(categories, entry));
+    }
+
+    private synchronized void put(Map<Long, Entry> byId, Entry entry) {
+        Entry previous = byId.put(entry.id(), entry);
+        if (entry.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(previous);
+        }
+        for (String token : tokensOf(entry)) {
+            tokens.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    private synchronized void remove(Map<Long, Entry> byId, Long id) {
+        Entry previous = byId.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (String token : tokensOf(entry)) {
+            tokens.computeIfPresent(token, (t, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    private static Set<String> tokensOf(Entry entry) {
+        Set<String> result = new LinkedHashSet<>();
+        if (entry.normalizedLabel() == null || entry.normalizedLabel().isBlank()) {
+            return result;
+        }
+        result.add(entry.normalizedLabel());
+        for (String word : entry.normalizedLabel().split("\\s+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+}
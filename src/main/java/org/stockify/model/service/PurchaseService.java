@@ -2,7 +2,6 @@ package org.stockify.model.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -11,24 +10,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.stockify.dto.request.purchase.PurchaseFilterRequest;
 import org.stockify.dto.request.purchase.PurchaseRequest;
-import org.stockify.dto.request.transaction.DetailTransactionRequest;
 import org.stockify.dto.response.PurchaseResponse;
-import org.stockify.model.entity.ProductEntity;
 import org.stockify.model.entity.ProviderEntity;
 import org.stockify.model.entity.PurchaseEntity;
 import org.stockify.model.entity.TransactionEntity;
 import org.stockify.model.enums.TransactionType;
-import org.stockify.model.event.ProductStockUpdatedEvent;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.PurchaseMapper;
-import org.stockify.model.repository.ProductRepository;
 import org.stockify.model.repository.ProviderRepository;
 import org.stockify.model.repository.PurchaseRepository;
 import org.stockify.model.specification.PurchaseSpecification;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -38,9 +30,7 @@ public class PurchaseService {
     private final PurchaseMapper purchaseMapper;
     private final TransactionService transactionService;
     private final ProviderRepository providerRepository;
-    private final ProductRepository productRepository;
-
-    private final ApplicationEventPublisher eventPublisher;
+    private final StockService stockService;
 
     @Transactional
     public PurchaseResponse createPurchase(PurchaseRequest request) {
@@ -52,26 +42,7 @@ public class PurchaseService {
         ProviderEntity provider = providerRepository.findById(request.getProviderId())
                 .orElseThrow(() -> new NotFoundException("Provider not found with ID " + request.getProviderId()));
 
-        List<ProductEntity> productsToUpdate = new ArrayList<>();
-
-        for (DetailTransactionRequest detail : request.getTransaction().getDetailTransactions()) {
-            ProductEntity product = productRepository.findById(detail.getProductID())
-                    .orElseThrow(() -> new NotFoundException("Product not found with ID " + detail.getProductID()));
-
-            long quantity = detail.getQuantity();
-            long oldStock = product.getStock() == null ? 0L : product.getStock();
-            long newStock = oldStock + quantity;
-
-            product.setStock(newStock);
-            productsToUpdate.add(product);
-
-            eventPublisher.publishEvent(new ProductStockUpdatedEvent(
-                    product.getId(),
-                    product.getName(),
-                    oldStock,
-                    newStock
-            ));
-        }
+        stockService.increase(request.getTransaction().getDetailTransactions());
 
         TransactionEntity transaction = transactionService.createTransaction(
                 request.getTransaction(), TransactionType.PURCHASE
@@ -82,7 +53,6 @@ public class PurchaseService {
         purchase.setProvider(provider);
         purchase.setUnitPrice(request.getUnitPrice());
 
-        productRepository.saveAll(productsToUpdate);
         PurchaseEntity saved = purchaseRepository.save(purchase);
         return purchaseMapper.toResponseDTO(saved);
     }
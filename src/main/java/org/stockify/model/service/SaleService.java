@@ -2,34 +2,37 @@ package org.stockify.model.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.stockify.dto.request.sale.SaleFilterRequest;
 import org.stockify.dto.request.sale.SaleRequest;
-import org.stockify.dto.request.transaction.DetailTransactionRequest;
+import org.stockify.dto.response.CursorPageResponse;
 import org.stockify.dto.response.SaleResponse;
 import org.stockify.dto.response.TransactionResponse;
-import org.stockify.model.entity.ProductEntity;
 import org.stockify.model.entity.SaleEntity;
 import org.stockify.model.entity.TransactionEntity;
 import org.stockify.model.enums.TransactionType;
-import org.stockify.model.event.ProductStockUpdatedEvent;
-import org.stockify.model.exception.InsufficientStockException;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.SaleMapper;
 import org.stockify.model.mapper.TransactionMapper;
-import org.stockify.model.repository.ProductRepository;
+import org.stockify.model.repository.KeysetPage;
+import org.stockify.model.repository.KeysetPager;
 import org.stockify.model.repository.SaleRepository;
 import org.stockify.model.repository.UserRepository;
 import org.stockify.model.specification.SaleSpecification;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -41,9 +44,9 @@ public class SaleService {
     private final UserRepository userRepository;
     private final SaleRepository saleRepository;
     private final TransactionMapper transactionMapper;
-    private final ProductRepository productRepository;
+    private final StockService stockService;
     private final ShipmentService shipmentService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPager keysetPager;
 
     public SaleResponse createSale(SaleRequest request) {
         return createSale(request, null);
@@ -55,36 +58,17 @@ public class SaleService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sale requires at least one product detail");
         }
 
-        List<ProductEntity> productsToUpdate = new ArrayList<>();
-
-        for (DetailTransactionRequest detail : request.getTransaction().getDetailTransactions()) {
-            ProductEntity product = productRepository.findById(detail.getProductID())
-                    .orElseThrow(() -> new NotFoundException("Product not found with ID " + detail.getProductID()));
-
-            long quantity = detail.getQuantity();
-            long currentStock = product.getStock() == null ? 0L : product.getStock();
-            long currentSold = product.getSoldQuantity() == null ? 0L : product.getSoldQuantity();
-
-            if (currentStock < quantity) {
-                throw new InsufficientStockException(
-                        "Insufficient stock for product ID " + detail.getProductID());
-            }
-
-            long newStock = currentStock - quantity;
-            product.setStock(newStock);
-            product.setSoldQuantity(currentSold + quantity);
-            productsToUpdate.add(product);
-
-            eventPublisher.publishEvent(new ProductStockUpdatedEvent(
-                    product.getId(),
-                    product.getName(),
-                    currentStock,
-                    newStock));
-        }
-
         TransactionEntity transaction = transactionService.createTransaction(
                 request.getTransaction(), TransactionType.SALE, idempotencyKey);
 
+        // Online checkouts (with an idempotency key) only hold the stock until the payment is resolved;
+        // direct sales take it right away. Either way a concurrent sale can never oversell.
+        if (idempotencyKey != null) {
+            stockService.reserve(transaction.getId(), request.getTransaction().getDetailTransactions());
+        } else {
+            stockService.decrease(transaction.getId(), request.getTransaction().getDetailTransactions());
+        }
+
         SaleEntity sale = saleMapper.toEntity(request);
         sale.setTransaction(transaction);
 
@@ -93,8 +77,6 @@ public class SaleService {
                     .orElseThrow(() -> new NotFoundException("User not found with ID " + request.getUserId())));
         }
 
-        productRepository.saveAll(productsToUpdate);
-
         sale.setShipment(shipmentService.mapShipment(request.getShipment(), sale));
 
         SaleEntity saved = saleRepository.save(sale);
@@ -111,8 +93,50 @@ public class SaleService {
         saleRepository.deleteById(id);
     }
 
+    /**
+     * Lists sales in two steps: the page of ids is cut in SQL, then the transaction and
+     * detail graph is fetched for just those ids. Fetching the collections in the paged
+     * query itself would make Hibernate paginate the whole result in memory.
+     */
     public Page<SaleResponse> findAll(SaleFilterRequest filterRequest, Pageable pageable) {
-        Specification<SaleEntity> specification = Specification
+        Page<Long> ids = saleRepository.findIds(buildSpecification(filterRequest), pageable);
+        List<SaleResponse> content = hydrate(ids.getContent());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Lists sales newest first with keyset (cursor) pagination, optionally skipping the total count.
+     *
+     * @param filterRequest the filters to apply
+     * @param size          the page size
+     * @param after         the cursor of the previous page, {@code null} for the first page
+     * @param includeTotal  whether to compute the total number of matches
+     * @return the page with the cursor of the next one
+     */
+    public CursorPageResponse<SaleResponse> findAllByCursor(SaleFilterRequest filterRequest, int size, String after,
+            boolean includeTotal) {
+        KeysetPage page = keysetPager.findIds(SaleEntity.class, buildSpecification(filterRequest),
+                "id", Sort.Direction.DESC, size, after, includeTotal);
+
+        return new CursorPageResponse<>(hydrate(page.ids()), page.nextCursor(), page.nextCursor() != null,
+                page.totalElements());
+    }
+
+    private List<SaleResponse> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, SaleEntity> byId = saleRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(SaleEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(saleMapper::toResponseDTO)
+                .toList();
+    }
+
+    private Specification<SaleEntity> buildSpecification(SaleFilterRequest filterRequest) {
+        return Specification
                 .where(SaleSpecification.byUserId(filterRequest.getUserId()))
                 .and(SaleSpecification.bySaleId(filterRequest.getSaleId()))
                 .and(SaleSpecification.byTransactionId(filterRequest.getTransactionId()))
@@ -120,9 +144,6 @@ public class SaleService {
                 .and(SaleSpecification.byStartDate(filterRequest.getStartDate()))
                 .and(SaleSpecification.byPaymentMethod(filterRequest.getPaymentMethod()))
                 .and(SaleSpecification.byTotalRange(filterRequest.getMinPrice(), filterRequest.getMaxPrice()));
-
-        Page<SaleEntity> saleEntities = saleRepository.findAll(specification, pageable);
-        return saleEntities.map(saleMapper::toResponseDTO);
     }
 
     public SaleResponse findById(Long id) {
@@ -5,12 +5,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.stockify.dto.request.product.ProductRequest;
 import org.stockify.dto.request.shipment.ShipmentFilterRequest;
 import org.stockify.dto.request.shipment.ShipmentRequest;
 import org.stockify.dto.request.shipment.UpdateShipmentRequest;
+import org.stockify.dto.response.CursorPageResponse;
 import org.stockify.dto.response.ShipmentResponse;
 import org.stockify.model.entity.*;
 import org.stockify.model.enums.OrderStatus;
@@ -18,12 +20,17 @@ import org.stockify.model.event.ProductStockUpdatedEvent;
 import org.stockify.model.event.ShipmentStateUpdatedEvent;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.ShipmentMapper;
+import org.stockify.model.repository.KeysetPage;
+import org.stockify.model.repository.KeysetPager;
 import org.stockify.model.repository.ShipmentRepository;
-import org.stockify.model.repository.StoreRepository;
 import org.stockify.model.specification.ShipmentSpecification;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,18 +39,19 @@ public class ShipmentService {
     private final ShipmentRepository shipmentRepository;
     private final ShipmentMapper shipmentMapper;
     private final ApplicationEventPublisher eventPublisher;
-    private final StoreRepository storeRepository;
+    private final StoreConfigCache storeConfigCache;
+    private final KeysetPager keysetPager;
 
     public ShipmentEntity mapShipment(ShipmentRequest request, SaleEntity sale) {
         ShipmentEntity shipment = shipmentMapper.toEntity(request, sale);
 
         if (Boolean.TRUE.equals(request.getPickup())) {
-            StoreEntity store = storeRepository.findById(1L)
+            StoreConfigCache.StoreSnapshot store = storeConfigCache.get()
                     .orElseThrow(() -> new NotFoundException("Store not found"));
-            shipment.setStreet(store.getAddress());
+            shipment.setStreet(store.address());
             shipment.setNumber(null);
-            shipment.setCity(store.getCity());
-            shipment.setZip(parsePostalCode(store.getPostalCode()));
+            shipment.setCity(store.city());
+            shipment.setZip(parsePostalCode(store.postalCode()));
         }
 
         long quantity = sale.getTransaction() == null ? 0
@@ -76,15 +84,15 @@ public class ShipmentService {
     }
 
     public Double calculateShippingCost(long quantity) {
-        StoreEntity store = storeRepository.findById(1L)
+        StoreConfigCache.StoreSnapshot store = storeConfigCache.get()
                 .orElseThrow(() -> new NotFoundException("Store not found"));
 
         if (quantity <= 4) {
-            return store.getShippingCostSmall().doubleValue();
+            return store.shippingCostSmall().doubleValue();
         } else if (quantity <= 6) {
-            return store.getShippingCostMedium().doubleValue();
+            return store.shippingCostMedium().doubleValue();
         } else {
-            return store.getShippingCostLarge().doubleValue();
+            return store.shippingCostLarge().doubleValue();
         }
     }
 
@@ -96,7 +104,36 @@ public class ShipmentService {
     }
 
     public Page<ShipmentResponse> findAll(ShipmentFilterRequest filterRequest, Pageable pageable) {
-        Specification<ShipmentEntity> specification = Specification
+        Page<ShipmentEntity> orderEntities = shipmentRepository.findAll(buildSpecification(filterRequest), pageable);
+        return orderEntities.map(shipmentMapper::toResponseDTO);
+    }
+
+    /**
+     * Lists shipments newest first with keyset (cursor) pagination, optionally skipping the total count.
+     *
+     * @param filterRequest the filters to apply
+     * @param size          the page size
+     * @param after         the cursor of the previous page, {@code null} for the first page
+     * @param includeTotal  whether to compute the total number of matches
+     * @return the page with the cursor of the next one
+     */
+    public CursorPageResponse<ShipmentResponse> findAllByCursor(ShipmentFilterRequest filterRequest, int size,
+            String after, boolean includeTotal) {
+        KeysetPage page = keysetPager.findIds(ShipmentEntity.class, buildSpecification(filterRequest),
+                "id", Sort.Direction.DESC, size, after, includeTotal);
+
+        Map<Long, ShipmentEntity> byId = shipmentRepository.findAllById(page.ids()).stream()
+                .collect(Collectors.toMap(ShipmentEntity::getId, Function.identity()));
+        List<ShipmentResponse> content = page.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(shipmentMapper::toResponseDTO)
+                .toList();
+        return new CursorPageResponse<>(content, page.nextCursor(), page.nextCursor() != null, page.totalElements());
+    }
+
+    private Specification<ShipmentEntity> buildSpecification(ShipmentFilterRequest filterRequest) {
+        return Specification
                 .where(ShipmentSpecification.byClient(filterRequest.getClientId()))
                 .and(ShipmentSpecification.byOrder(filterRequest.getOrderId()))
                 .and(ShipmentSpecification.byStatus(mapStatus(filterRequest.getStatus())))
@@ -105,9 +142,6 @@ public class ShipmentService {
                 .and(ShipmentSpecification.byTotalRange(filterRequest.getMinPrice(),  filterRequest.getMaxPrice()))
                 .and(ShipmentSpecification.byPickup(filterRequest.getPickup()))
                 .and(ShipmentSpecification.byCity(filterRequest.getCity()));
-
-        Page<ShipmentEntity> orderEntities = shipmentRepository.findAll(specification, pageable);
-        return orderEntities.map(shipmentMapper::toResponseDTO);
     }
 
     public ShipmentResponse findById(Long id) {
@@ -0,0 +1,398 @@
+package org.stockify.model.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.stockify.dto.response.NotificationResponse;
+import org.stockify.model.enums.SlowConsumerPolicy;
+import org.stockify.model.event.NotificationDelivery;
+import org.stockify.model.repository.WishlistRepository;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The SSE connections open on this node, by user.
+ * <p>
+ * {@link NotificationBroker} implementations hand every delivery to {@link #deliver}, which
+ * resolves its audience against the local connections only.
+ * </p>
+ * <p>
+ * Sending never blocks the caller. Each event is serialized once and the same frame is queued
+ * on every target connection. Each connection has a bounded outbound queue, drained by the
+ * {@code sseWriterExecutor}. A write that takes longer than {@code notifications.sse.send-timeout-ms}
+ * gets the connection evicted: nothing more is queued for it and the client reconnects. The
+ * writer thread itself stays blocked until the container's write timeout gives up on the
+ * socket, which is why the writer pool grows past its core size instead of queueing behind
+ * blocked writers (see {@code SseWriterConfig}). Delivery to the other connections only stalls
+ * if more clients stop reading at the same time than the pool has threads. When a queue is full, the
+ * {@code notifications.sse.slow-consumer-policy} applies: {@code DROP_OLDEST} discards the oldest
+ * queued event, {@code EVICT} closes the connection and the client reconnects. Missed
+ * notifications remain in the user's notification list.
+ * </p>
+ * <p>
+ * Metrics, all under {@code notifications.sse}: open {@code connections}, connected
+ * {@code users} and {@code queued} events (gauges); {@code subscriptions},
+ * {@code events.queued}, {@code events.dropped} and {@code disconnections} by reason
+ * (counters); {@code dispatch} by audience, {@code keepalive}, {@code send} (one write to a
+ * client) and {@code delivery} (from queued to written) as timers.
+ * </p>
+ */
+@Slf4j
+@Component
+public class SseConnectionRegistry {
+
+    private static final long EMITTER_TIMEOUT_MS = 3600000L;
+    private static final int SUBSCRIBER_LOOKUP_CHUNK = 1000;
+
+    private final WishlistRepository wishlistRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writerExecutor;
+    private final int queueCapacity;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final long sendTimeoutNanos;
+    private final Set<ResponseBodyEmitter.DataWithMediaType> keepAlive;
+    private final Map<Long, Set<Connection>> activeConnections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter subscriptions;
+    private final Counter eventsQueued;
+    private final Counter eventsDropped;
+    private final Timer keepAliveTimer;
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+    private final Map<NotificationDelivery.Audience, Timer> dispatchTimers =
+            new EnumMap<>(NotificationDelivery.Audience.class);
+
+    public SseConnectionRegistry(WishlistRepository wishlistRepository,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("sseWriterExecutor") ExecutorService writerExecutor,
+                                 @Value("${notifications.sse.queue-capacity:64}") int queueCapacity,
+                                 @Value("${notifications.sse.slow-consumer-policy:DROP_OLDEST}")
+                                 SlowConsumerPolicy slowConsumerPolicy,
+                                 @Value("${notifications.sse.send-timeout-ms:5000}") long sendTimeoutMs,
+                                 MeterRegistry meterRegistry) {
+        this.wishlistRepository = wishlistRepository;
+        this.objectMapper = objectMapper;
+        this.writerExecutor = writerExecutor;
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.keepAlive = Collections.unmodifiableSet(SseEmitter.event().name("keepalive").data("keepalive").build());
+
+        this.meterRegistry = meterRegistry;
+        this.subscriptions = meterRegistry.counter("notifications.sse.subscriptions");
+        this.eventsQueued = meterRegistry.counter("notifications.sse.events.queued");
+        this.eventsDropped = meterRegistry.counter("notifications.sse.events.dropped");
+        this.keepAliveTimer = meterRegistry.timer("notifications.sse.keepalive");
+        this.sendTimer = meterRegistry.timer("notifications.sse.send");
+        this.deliveryTimer = meterRegistry.timer("notifications.sse.delivery");
+        for (NotificationDelivery.Audience audience : NotificationDelivery.Audience.values()) {
+            dispatchTimers.put(audience, meterRegistry.timer("notifications.sse.dispatch", "audience", audience.name()));
+        }
+        Gauge.builder("notifications.sse.connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("notifications.sse.users", activeConnections, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("notifications.sse.queued", this, SseConnectionRegistry::queuedEvents)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Connection connection = new Connection(userId, emitter, queueCapacity);
+        activeConnections.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet())
+                .add(connection);
+        connectionCount.incrementAndGet();
+        subscriptions.increment();
+
+        emitter.onCompletion(() -> remove(connection, "completed"));
+        emitter.onTimeout(() -> remove(connection, "timeout"));
+        emitter.onError(e -> remove(connection, "error"));
+
+        enqueue(connection, keepAlive);
+        return emitter;
+    }
+
+    /**
+     * Queues a delivery on the matching connections of this node.
+     */
+    public void deliver(NotificationDelivery delivery) {
+        if (activeConnections.isEmpty()) {
+            return;
+        }
+        dispatchTimers.get(delivery.audience()).record(() -> dispatch(delivery));
+    }
+
+    /**
+     * Connected users of this node.
+     */
+    public int connectedUsers() {
+        return activeConnections.size();
+    }
+
+    /**
+     * Open SSE connections of this node; a user with several tabs open counts once per tab.
+     */
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Events queued on this node's connections and not yet written.
+     */
+    public int queuedEvents() {
+        int queued = 0;
+        for (Set<Connection> connections : activeConnections.values()) {
+            for (Connection connection : connections) {
+                queued += connection.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    private void dispatch(NotificationDelivery delivery) {
+        NotificationResponse notification = delivery.notification();
+        switch (delivery.audience()) {
+            case USER -> sendToUser(delivery.userId(), serialize(notification));
+            case USERS -> delivery.notificationIds().forEach((userId, notificationId) -> {
+                if (activeConnections.containsKey(userId)) {
+                    sendToUser(userId, serialize(withId(notification, notificationId)));
+                }
+            });
+            case PRODUCT_SUBSCRIBERS -> {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame = serialize(notification);
+                // Only the users connected here are looked up, never the whole audience of the product
+                List<Long> connected = List.copyOf(activeConnections.keySet());
+                for (int from = 0; from < connected.size(); from += SUBSCRIBER_LOOKUP_CHUNK) {
+                    List<Long> chunk = connected.subList(from, Math.min(from + SUBSCRIBER_LOOKUP_CHUNK, connected.size()));
+                    for (Long userId : wishlistRepository.findUserIdsByProductIdAndUserIdIn(delivery.productId(), chunk)) {
+                        sendToUser(userId, frame);
+                    }
+                }
+            }
+            case EVERYONE -> {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame = serialize(notification);
+                activeConnections.keySet().forEach(userId -> sendToUser(userId, frame));
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 25000)
+    public void sendKeepAlive() {
+        keepAliveTimer.record(() -> activeConnections.values().forEach(connections -> connections.forEach(connection -> {
+            // A connection with events still queued does not need a keepalive, but it may need a
+            // writer if the pool was saturated when its events were queued
+            if (connection.queue.isEmpty()) {
+                enqueue(connection, keepAlive);
+            } else {
+                schedule(connection);
+            }
+        })));
+    }
+
+    /**
+     * Evicts the connections whose current write has been blocked for longer than the send
+     * timeout. Only unregisters them: completing the emitter would wait for the blocked write.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void evictStalledConnections() {
+        long now = System.nanoTime();
+        activeConnections.values().forEach(connections -> connections.forEach(connection -> {
+            long startedAt = connection.writeStartedAt;
+            if (startedAt != 0 && now - startedAt > sendTimeoutNanos) {
+                log.info("Closing SSE connection of user {}: write blocked for more than {} ms",
+                        connection.userId, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                close(connection, "send_timeout");
+            }
+        }));
+    }
+
+    private void sendToUser(Long userId, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (frame == null) {
+            return;
+        }
+        Set<Connection> connections = activeConnections.get(userId);
+        if (connections == null || connections.isEmpty())
+            return;
+
+        connections.forEach(connection -> enqueue(connection, frame));
+    }
+
+    private void enqueue(Connection connection, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (connection.closed.get()) {
+            return;
+        }
+        QueuedFrame queued = new QueuedFrame(frame, System.nanoTime());
+        if (!connection.queue.offer(queued)) {
+            if (slowConsumerPolicy == SlowConsumerPolicy.EVICT) {
+                log.info("Closing SSE connection of user {}: outbound queue full", connection.userId);
+                close(connection, "evicted");
+                return;
+            }
+            if (connection.queue.poll() != null) {
+                eventsDropped.increment();
+            }
+            if (!connection.queue.offer(queued)) {
+                eventsDropped.increment();
+                return;
+            }
+        }
+        eventsQueued.increment();
+        schedule(connection);
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                writerExecutor.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            QueuedFrame queued;
+            while (!connection.closed.get() && (queued = connection.queue.poll()) != null) {
+                long start = System.nanoTime();
+                connection.writeStartedAt = start;
+                connection.emitter.send(queued.frame());
+                connection.writeStartedAt = 0;
+                long end = System.nanoTime();
+                sendTimer.record(end - start, TimeUnit.NANOSECONDS);
+                deliveryTimer.record(end - queued.enqueuedAt(), TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException | IllegalStateException e) {
+            connection.writeStartedAt = 0;
+            connection.draining.set(false);
+            close(connection, "send_failed");
+            return;
+        } finally {
+            connection.writeStartedAt = 0;
+            connection.draining.set(false);
+        }
+        if (connection.closed.get()) {
+            // Closed while this writer was busy: complete the emitter now that no write holds it
+            complete(connection);
+            return;
+        }
+        // An event queued after the last poll but before the flag was cleared still needs a writer
+        if (!connection.queue.isEmpty() && !connection.closed.get()) {
+            schedule(connection);
+        }
+    }
+
+    /**
+     * Unregisters a connection and completes its emitter. If a writer is busy with it, the
+     * emitter is left to that writer: {@code complete} would wait for the blocked write.
+     */
+    private void close(Connection connection, String reason) {
+        remove(connection, reason);
+        if (!connection.draining.get()) {
+            complete(connection);
+        }
+    }
+
+    private void complete(Connection connection) {
+        try {
+            connection.emitter.complete();
+        } catch (RuntimeException ignored) {
+            // the connection is already gone
+        }
+    }
+
+    /**
+     * Unregisters a connection. The emitter callbacks may call this again after
+     * {@link #close}; only the first call is counted.
+     */
+    private void remove(Connection connection, String reason) {
+        if (connection.closed.compareAndSet(false, true)) {
+            connectionCount.decrementAndGet();
+            meterRegistry.counter("notifications.sse.disconnections", "reason", reason).increment();
+        }
+        connection.queue.clear();
+        Set<Connection> connections = activeConnections.get(connection.userId);
+        if (connections == null) {
+            return;
+        }
+        connections.remove(connection);
+        if (connections.isEmpty()) {
+            activeConnections.remove(connection.userId, connections);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> serialize(NotificationResponse notification) {
+        try {
+            String json = objectMapper.writeValueAsString(notification);
+            return Collections.unmodifiableSet(SseEmitter.event()
+                    .name("notification")
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize notification {}", notification.id(), e);
+            return null;
+        }
+    }
+
+    private static NotificationResponse withId(NotificationResponse response, Long id) {
+        return new NotificationResponse(
+                id,
+                response.title(),
+                response.message(),
+                response.type(),
+                response.icon(),
+                response.relatedProductId(),
+                response.relatedSaleId(),
+                response.publishAt(),
+                response.expiresAt(),
+                response.createdAt(),
+                response.hidden(),
+                response.read());
+    }
+
+    private record QueuedFrame(Set<ResponseBodyEmitter.DataWithMediaType> frame, long enqueuedAt) {
+    }
+
+    private static final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<QueuedFrame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the write in progress started, 0 when no write is in progress
+        private volatile long writeStartedAt;
+
+        private Connection(Long userId, SseEmitter emitter, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.stockify.model.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.stockify.dto.response.SseNodeStatsResponse;
+import org.stockify.model.entity.SseNodeEntity;
+import org.stockify.model.repository.SseNodeRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes the SSE connection counts of this node so any node can list them all.
+ * <p>
+ * Each node writes its counts to {@code sse_nodes} every {@code notifications.sse.node-report-ms}.
+ * {@link #liveNodes()} returns the nodes that reported within the last three intervals, with
+ * the counts of the answering node taken at the time of the request. Rows of nodes that
+ * stopped reporting are removed after an hour. The node id is
+ * {@code notifications.sse.node-id}, or host name and process id when it is not set.
+ * </p>
+ */
+@Slf4j
+@Service
+public class SseNodeMonitor {
+
+    private static final int LIVE_INTERVALS = 3;
+    private static final Duration STALE_AFTER = Duration.ofHours(1);
+
+    private final SseConnectionRegistry sseConnectionRegistry;
+    private final SseNodeRepository sseNodeRepository;
+    private final Duration reportInterval;
+    private final String nodeId;
+    private final Instant startedAt = Instant.now();
+
+    public SseNodeMonitor(SseConnectionRegistry sseConnectionRegistry,
+                          SseNodeRepository sseNodeRepository,
+                          @Value("${notifications.sse.node-report-ms:15000}") long reportIntervalMs,
+                          @Value("${notifications.sse.node-id:}") String nodeId) {
+        this.sseConnectionRegistry = sseConnectionRegistry;
+        this.sseNodeRepository = sseNodeRepository;
+        this.reportInterval = Duration.ofMillis(reportIntervalMs);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    @Scheduled(fixedRateString = "${notifications.sse.node-report-ms:15000}")
+    public void report() {
+        Instant now = Instant.now();
+        try {
+            sseNodeRepository.report(nodeId,
+                    sseConnectionRegistry.connectedUsers(),
+                    sseConnectionRegistry.connectionCount(),
+                    sseConnectionRegistry.queuedEvents(),
+                    startedAt,
+                    now);
+            sseNodeRepository.deleteStale(now.minus(STALE_AFTER));
+        } catch (DataAccessException e) {
+            log.warn("Could not report SSE connections of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public List<SseNodeStatsResponse> liveNodes() {
+        Instant now = Instant.now();
+        List<SseNodeStatsResponse> nodes = new ArrayList<>();
+        nodes.add(new SseNodeStatsResponse(
+                nodeId,
+                sseConnectionRegistry.connectedUsers(),
+                sseConnectionRegistry.connectionCount(),
+                sseConnectionRegistry.queuedEvents(),
+                startedAt,
+                now,
+                true));
+        for (SseNodeEntity node : sseNodeRepository.findAllByReportedAtAfterOrderByNodeId(
+                now.minus(reportInterval.multipliedBy(LIVE_INTERVALS)))) {
+            if (node.getNodeId().equals(nodeId)) {
+                continue;
+            }
+            nodes.add(new SseNodeStatsResponse(
+                    node.getNodeId(),
+                    node.getConnectedUsers(),
+                    node.getConnections(),
+                    node.getQueuedEvents(),
+                    node.getStartedAt(),
+                    node.getReportedAt(),
+                    false));
+        }
+        return nodes;
+    }
+
+    @PreDestroy
+    public void unregister() {
+        try {
+            sseNodeRepository.deleteById(nodeId);
+        } catch (DataAccessException e) {
+            log.debug("Could not remove SSE node {} on shutdown", nodeId, e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
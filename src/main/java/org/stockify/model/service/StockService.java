@@ -0,0 +1,316 @@
+package org.stockify.model.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.stockify.dto.request.transaction.DetailTransactionRequest;
+import org.stockify.model.entity.ProductEntity;
+import org.stockify.model.entity.StockReservationEntity;
+import org.stockify.model.enums.ReservationStatus;
+import org.stockify.model.event.ProductStockUpdatedEvent;
+import org.stockify.model.exception.InsufficientStockException;
+import org.stockify.model.exception.NotFoundException;
+import org.stockify.model.projections.ReservedQuantity;
+import org.stockify.model.repository.ProductStockRepository;
+import org.stockify.model.repository.ProductStockRepository.StockLevel;
+import org.stockify.model.repository.ProductStockRepository.StockLine;
+import org.stockify.model.repository.StockReservationRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies stock movements with conditional updates in the database instead of
+ * read-modify-write on the entities.
+ * <p>
+ * Lines are merged per product and applied in ascending product id order, so concurrent
+ * sales always lock rows in the same order and cannot deadlock each other. Decrements only
+ * succeed where enough stock is left; if any line fails, nothing is applied (the caller's
+ * transaction rolls back) and the exception names every failing line.
+ * </p>
+ * <p>
+ * Online checkouts do not take stock right away: they place time-boxed holds in the
+ * reservation ledger, which count against availability until the payment is approved
+ * (commit), fails (release) or the cleanup sweep expires them. A hold past its expiry keeps
+ * counting until the sweep marks it, so committing an active hold never oversells.
+ * </p>
+ * <p>
+ * Every movement of the real stock (sale, purchase, committed holds, units given back)
+ * publishes a {@link ProductStockUpdatedEvent} from here. Holds only change availability,
+ * not stock, so placing, releasing or expiring them publishes nothing.
+ * </p>
+ * <p>
+ * The updates bypass the persistence context: pending changes are flushed first, and
+ * products already loaded in the transaction (e.g. by {@link CheckoutProductLoader} to price
+ * the checkout) are refreshed afterwards, so they neither show nor write back a stale stock.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final ProductStockRepository productStockRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CheckoutProductLoader checkoutProductLoader;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transaction.cleanup.timeout-minutes:15}")
+    private long holdMinutes;
+
+    public record StockChange(Long productId, String productName, long oldStock, long newStock) {
+    }
+
+    /**
+     * Takes the sold units out of stock. Units held by pending checkouts are not available.
+     * The units are recorded in the ledger as committed, so cancelling the sale gives them back.
+     *
+     * @param transactionId the transaction of the sale
+     * @param details       the lines of the sale
+     * @return the resulting stock change of each product, ordered by product id
+     * @throws NotFoundException          if a product does not exist
+     * @throws InsufficientStockException if a product does not have enough stock
+     */
+    public List<StockChange> decrease(Long transactionId, Collection<DetailTransactionRequest> details) {
+        List<StockLine> lines = mergeLines(details);
+        entityManager.flush();
+        // Lock first so the conditional updates see the holds committed by other checkouts
+        productStockRepository.lock(productIds(lines));
+        int[] counts = productStockRepository.decrement(lines);
+
+        List<StockLine> failed = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[i] == 0) {
+                failed.add(lines.get(i));
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw describeFailure(failed, productStockRepository.findLevels(productIds(failed)));
+        }
+        saveReservations(transactionId, lines, ReservationStatus.COMMITTED, LocalDateTime.now());
+        refreshProducts(lines);
+        return toChanges(lines, -1);
+    }
+
+    /**
+     * Adds purchased units to stock.
+     *
+     * @param details the lines of the purchase
+     * @return the resulting stock change of each product, ordered by product id
+     * @throws NotFoundException if a product does not exist
+     */
+    public List<StockChange> increase(Collection<DetailTransactionRequest> details) {
+        List<StockLine> lines = mergeLines(details);
+        entityManager.flush();
+        int[] counts = productStockRepository.increment(lines);
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[i] == 0) {
+                throw new NotFoundException("Product not found with ID " + lines.get(i).productId());
+            }
+        }
+        refreshProducts(lines);
+        return toChanges(lines, 1);
+    }
+
+    /**
+     * Holds the units of a checkout until its payment is resolved or the hold expires.
+     *
+     * @param transactionId the pending transaction the holds belong to
+     * @param details       the lines of the checkout
+     * @throws NotFoundException          if a product does not exist
+     * @throws InsufficientStockException if a product does not have enough units available
+     */
+    public void reserve(Long transactionId, Collection<DetailTransactionRequest> details) {
+        List<StockLine> lines = mergeLines(details);
+        entityManager.flush();
+        productStockRepository.lock(productIds(lines));
+        Map<Long, StockLevel> levels = productStockRepository.findLevels(productIds(lines));
+
+        List<StockLine> failed = lines.stream()
+                .filter(line -> !levels.containsKey(line.productId())
+                        || levels.get(line.productId()).available() < line.quantity())
+                .toList();
+        if (!failed.isEmpty()) {
+            throw describeFailure(failed, levels);
+        }
+
+        saveReservations(transactionId, lines, ReservationStatus.ACTIVE, LocalDateTime.now().plusMinutes(holdMinutes));
+    }
+
+    /**
+     * Turns the active holds of a transaction into a sale.
+     * <p>
+     * If the holds are already gone (the sweep expired them, or they were released, before the
+     * approval arrived) the units are taken again like a direct sale, but only if every line
+     * still has enough units available; otherwise nothing is applied. Transactions whose units
+     * were already taken, or that never had holds, are left as they are.
+     * </p>
+     *
+     * @param transactionId the approved transaction
+     * @param details       the lines of the transaction, used only to take the units again
+     * @return the resulting stock change of each product, ordered by product id
+     * @throws InsufficientStockException if the holds are gone and a product no longer has
+     *                                    enough units; no stock was moved
+     */
+    public List<StockChange> commitReservations(Long transactionId, Collection<DetailTransactionRequest> details) {
+        entityManager.flush();
+        List<StockLine> lines = toLines(stockReservationRepository.transition(
+                transactionId, ReservationStatus.ACTIVE.name(), ReservationStatus.COMMITTED.name()));
+        if (lines.isEmpty()) {
+            return retake(transactionId, details);
+        }
+        productStockRepository.commit(lines);
+        refreshProducts(lines);
+        return toChanges(lines, -1);
+    }
+
+    /**
+     * Gives back everything a transaction took: active holds are dropped, and the units of
+     * committed holds (a direct sale, or an approved payment later refunded) are put back in stock.
+     * Calling it again has no further effect.
+     *
+     * @return the stock change of each product put back in stock, ordered by product id
+     */
+    public List<StockChange> releaseReservations(Long transactionId) {
+        entityManager.flush();
+        stockReservationRepository.transition(
+                transactionId, ReservationStatus.ACTIVE.name(), ReservationStatus.RELEASED.name());
+        List<StockLine> restored = toLines(stockReservationRepository.transition(
+                transactionId, ReservationStatus.COMMITTED.name(), ReservationStatus.RELEASED.name()));
+        productStockRepository.restore(restored);
+        refreshProducts(restored);
+        return toChanges(restored, 1);
+    }
+
+    private List<StockChange> retake(Long transactionId, Collection<DetailTransactionRequest> details) {
+        boolean taken = stockReservationRepository.existsByTransactionIdAndStatusIn(
+                transactionId, List.of(ReservationStatus.ACTIVE, ReservationStatus.COMMITTED));
+        boolean lost = stockReservationRepository.existsByTransactionIdAndStatusIn(
+                transactionId, List.of(ReservationStatus.EXPIRED, ReservationStatus.RELEASED));
+        if (taken || !lost || details.isEmpty()) {
+            return List.of();
+        }
+        // Checked under the row locks before any update, so a shortage leaves the stock untouched
+        List<StockLine> lines = mergeLines(details);
+        productStockRepository.lock(productIds(lines));
+        Map<Long, StockLevel> levels = productStockRepository.findLevels(productIds(lines));
+        List<StockLine> failed = lines.stream()
+                .filter(line -> !levels.containsKey(line.productId())
+                        || levels.get(line.productId()).available() < line.quantity())
+                .toList();
+        if (!failed.isEmpty()) {
+            throw describeFailure(failed, levels);
+        }
+        return decrease(transactionId, details);
+    }
+
+    /**
+     * Expires the holds of up to {@code limit} transactions whose holds are past their expiry.
+     * Transactions locked by another sweeper or a payment update are left for a later chunk.
+     *
+     * @return the ids of the transactions whose holds expired
+     */
+    public List<Long> expireReservations(int limit) {
+        entityManager.flush();
+        return stockReservationRepository.expireDue(limit);
+    }
+
+    private void saveReservations(Long transactionId, List<StockLine> lines, ReservationStatus status,
+                                  LocalDateTime expiresAt) {
+        stockReservationRepository.saveAll(lines.stream()
+                .map(line -> {
+                    StockReservationEntity reservation = new StockReservationEntity(
+                            line.productId(), transactionId, line.quantity(), expiresAt);
+                    reservation.setStatus(status);
+                    return reservation;
+                })
+                .toList());
+    }
+
+    /**
+     * Reloads the moved products that are already managed in this transaction and drops them
+     * from the request's checkout cache. Products not loaded yet are left alone; they will be
+     * read with the new stock.
+     */
+    private void refreshProducts(List<StockLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        for (StockLine line : lines) {
+            // Returns the managed instance if there is one, otherwise an unloaded proxy
+            ProductEntity product = entityManager.getReference(ProductEntity.class, line.productId());
+            if (Hibernate.isInitialized(product)) {
+                entityManager.refresh(product);
+            }
+        }
+        checkoutProductLoader.evict(productIds(lines));
+    }
+
+    private List<StockLine> mergeLines(Collection<DetailTransactionRequest> details) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (DetailTransactionRequest detail : details) {
+            quantities.merge(detail.getProductID(), detail.getQuantity(), Long::sum);
+        }
+        return quantities.entrySet().stream()
+                .map(e -> new StockLine(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    private static List<StockLine> toLines(List<ReservedQuantity> quantities) {
+        return quantities.stream()
+                .map(q -> new StockLine(q.getProductId(), q.getQuantity()))
+                .toList();
+    }
+
+    private static List<Long> productIds(List<StockLine> lines) {
+        return lines.stream().map(StockLine::productId).toList();
+    }
+
+    private RuntimeException describeFailure(List<StockLine> failed, Map<Long, StockLevel> levels) {
+        for (StockLine line : failed) {
+            if (!levels.containsKey(line.productId())) {
+                return new NotFoundException("Product not found with ID " + line.productId());
+            }
+        }
+        String details = failed.stream()
+                .map(line -> "product ID " + line.productId()
+                        + " (requested " + line.quantity()
+                        + ", available " + levels.get(line.productId()).available() + ")")
+                .collect(Collectors.joining("; "));
+        return new InsufficientStockException("Insufficient stock for " + details);
+    }
+
+    /**
+     * Reads the resulting stock of the moved products and publishes one stock event per product.
+     */
+    private List<StockChange> toChanges(List<StockLine> lines, int sign) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, StockLevel> levels = productStockRepository.findLevels(productIds(lines));
+        List<StockChange> changes = new ArrayList<>(lines.size());
+        for (StockLine line : lines) {
+            StockLevel level = levels.get(line.productId());
+            if (level == null) {
+                continue;
+            }
+            long newStock = level.stock();
+            changes.add(new StockChange(level.productId(), level.productName(),
+                    newStock - sign * line.quantity(), newStock));
+        }
+        changes.forEach(change -> eventPublisher.publishEvent(new ProductStockUpdatedEvent(
+                change.productId(), change.productName(), change.oldStock(), change.newStock())));
+        return changes;
+    }
+}
@@ -0,0 +1,88 @@
+package org.stockify.model.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.stockify.model.entity.StoreEntity;
+import org.stockify.model.event.StoreConfigChangedEvent;
+import org.stockify.model.repository.StoreRepository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Keeps an immutable snapshot of the singleton store configuration, so checkout can read the
+ * store and its shipping costs without a query.
+ * <p>
+ * The snapshot is loaded on first use and dropped after every {@link StoreConfigChangedEvent},
+ * which the store and carousel write paths publish. It is also reloaded once it is older than
+ * {@code store.config.cache-ttl-seconds}, which bounds how long other application nodes keep
+ * serving a configuration changed elsewhere.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreConfigCache {
+
+    private final StoreRepository storeRepository;
+
+    @Value("${store.config.cache-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile Cached cached;
+    private long generation;
+
+    public record StoreSnapshot(
+            Long id,
+            String storeName,
+            String address,
+            String city,
+            String phone,
+            String postalCode,
+            BigDecimal shippingCostSmall,
+            BigDecimal shippingCostMedium,
+            BigDecimal shippingCostLarge) {
+
+        private static StoreSnapshot of(StoreEntity store) {
+            return new StoreSnapshot(store.getId(), store.getStoreName(), store.getAddress(), store.getCity(),
+                    store.getPhone(), store.getPostalCode(), store.getShippingCostSmall(),
+                    store.getShippingCostMedium(), store.getShippingCostLarge());
+        }
+    }
+
+    private record Cached(StoreSnapshot snapshot, long loadedAtNanos) {
+    }
+
+    /**
+     * Returns the current store configuration, or empty if no store has been registered yet.
+     */
+    public Optional<StoreSnapshot> get() {
+        Cached current = cached;
+        if (current != null && System.nanoTime() - current.loadedAtNanos() < ttlSeconds * 1_000_000_000L) {
+            return Optional.of(current.snapshot());
+        }
+
+        long loadingGeneration;
+        synchronized (this) {
+            loadingGeneration = generation;
+        }
+        Optional<StoreSnapshot> loaded = storeRepository.findFirstByOrderByIdAsc().map(StoreSnapshot::of);
+        synchronized (this) {
+            // A change committed while loading wins over what was read
+            if (loaded.isPresent() && generation == loadingGeneration) {
+                cached = new Cached(loaded.get(), System.nanoTime());
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(
+            phase = TransactionPhase.AFTER_COMMIT,
+            fallbackExecution = true)
+    public synchronized void handleStoreChange(StoreConfigChangedEvent event) {
+        generation++;
+        cached = null;
+    }
+}
@@ -1,12 +1,14 @@
 package org.stockify.model.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.stockify.dto.request.store.StoreRequest;
 import org.stockify.dto.response.StoreResponse;
 import org.stockify.model.entity.StoreEntity;
+import org.stockify.model.event.StoreConfigChangedEvent;
 import org.stockify.model.exception.DuplicatedUniqueConstraintException;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.StoreMapper;
@@ -23,6 +25,7 @@ public class StoreService {
 
     private final StoreRepository storeRepository;
     private final StoreMapper storeMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves a paginated list of all stores.
@@ -59,6 +62,7 @@ public class StoreService {
         }
         StoreEntity store = storeMapper.toEntity(request);
         store = storeRepository.save(store);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(store.getId()));
         return storeMapper.toResponse(store);
     }
 
@@ -74,6 +78,7 @@ public class StoreService {
         StoreEntity store = getStoreById(id);
         storeMapper.updateEntityFromRequest(request, store);
         store = storeRepository.save(store);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(store.getId()));
         return storeMapper.toResponse(store);
     }
 
@@ -89,7 +94,9 @@ public class StoreService {
     public StoreResponse patch(Long id, StoreRequest request) {
         StoreEntity store = getStoreById(id);
         storeMapper.patchEntityFromRequest(request, store);
-        return storeMapper.toResponse(storeRepository.save(store));
+        StoreEntity saved = storeRepository.save(store);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(saved.getId()));
+        return storeMapper.toResponse(saved);
     }
 
     /**
@@ -99,6 +106,7 @@ public class StoreService {
      */
     public void deleteById(Long id) {
         storeRepository.deleteById(id);
+        eventPublisher.publishEvent(new StoreConfigChangedEvent(id));
     }
 
     /**
@@ -131,6 +139,7 @@ public class StoreService {
             entity.setCity("");
             entity.setPostalCode("");
             storeRepository.save(entity);
+            eventPublisher.publishEvent(new StoreConfigChangedEvent(entity.getId()));
         }
     }
 
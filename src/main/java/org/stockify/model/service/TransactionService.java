@@ -11,21 +11,22 @@ import org.stockify.model.entity.*;
 import org.stockify.model.enums.OrderStatus;
 import org.stockify.model.enums.PaymentStatus;
 import org.stockify.model.enums.TransactionType;
+import org.stockify.model.exception.InsufficientStockException;
 import org.stockify.model.exception.NotFoundException;
 import org.stockify.model.mapper.TransactionMapper;
-import org.stockify.model.repository.ProductRepository;
-import org.stockify.model.repository.ShipmentRepository;
 import org.stockify.model.repository.StoreRepository;
 import org.stockify.model.repository.TransactionRepository;
 import org.stockify.util.PriceCalculator;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.LocalDateTime;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -35,10 +36,11 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
-    private final ProductRepository productRepository;
+    private final CheckoutProductLoader checkoutProductLoader;
     private final StoreRepository storeRepository;
+    private final StoreConfigCache storeConfigCache;
     private final PriceCalculator priceCalculator;
-    private final ShipmentRepository shipmentRepository;
+    private final StockService stockService;
 
     public TransactionResponse saveTransaction(TransactionCreatedRequest request, TransactionType type) {
         TransactionEntity transactionEntity = transactionMapper.toEntity(request);
@@ -58,11 +60,15 @@ public class TransactionService {
         TransactionEntity transactionEntity = transactionMapper.toEntity(request);
         transactionEntity.setStore(resolveDefaultStore());
 
+        Map<Long, ProductEntity> products = checkoutProductLoader.load(request.getDetailTransactions().stream()
+                .map(DetailTransactionRequest::getProductID)
+                .toList());
+
         Set<DetailTransactionEntity> detailTransactions = new HashSet<>();
         BigDecimal total = BigDecimal.ZERO;
         for (DetailTransactionRequest detailRequest : request.getDetailTransactions()) {
 
-            ProductEntity product = resolveProduct(detailRequest.getProductID());
+            ProductEntity product = products.get(detailRequest.getProductID());
 
             DetailTransactionEntity entity = new DetailTransactionEntity();
             entity.setProduct(product);
@@ -104,26 +110,60 @@ public class TransactionService {
         return product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
     }
 
-    public void cancelExpiredTransactions(int timeoutMinutes) {
-        LocalDateTime expirationTime = LocalDateTime.now().minusMinutes(timeoutMinutes);
-        List<TransactionEntity> expiredTransactions = transactionRepository.findAllByPaymentStatusAndDateTimeBefore(
-                PaymentStatus.PENDING, expirationTime);
-
-        if (expiredTransactions.isEmpty()) return;
-
-        log.info("Found {} expired pending transactions to cancel (Timeout: {} min)", expiredTransactions.size(),
-                timeoutMinutes);
-
-        for (TransactionEntity transaction : expiredTransactions) {
-            try {
-                cancelTransaction(transaction, "EXPIRED");
-                ShipmentEntity shipment = transaction.getSale().getShipment();
-                shipment.setStatus(OrderStatus.CANCELLED);
-                shipmentRepository.save(shipment);
-            } catch (Exception e) {
-                log.error("Error cancelling expired transaction ID: {}", transaction.getId(), e);
+    /**
+     * Runs one chunk of the expiry sweep in its own transaction: expires the stock holds of up
+     * to {@code chunkSize} transactions and cancels those still pending, together with their
+     * shipments.
+     * <p>
+     * The claim leaves the transaction rows locked until commit, so the cancellation can go
+     * through the entities: it costs one query to load the chunk and batched updates, and
+     * Envers records it like any other cancellation. A transaction whose idempotency key is
+     * already used by another cancelled one gets its id appended to the key, so the
+     * (idempotency_key, payment_status) constraint holds.
+     * </p>
+     *
+     * @param chunkSize maximum number of transactions to claim
+     * @return the number of transactions claimed; less than {@code chunkSize} once nothing is left
+     */
+    public int cancelExpiredTransactions(int chunkSize) {
+        List<Long> expired = stockService.expireReservations(chunkSize);
+        if (expired.isEmpty()) return 0;
+
+        List<TransactionEntity> pending = transactionRepository
+                .findAllByIdInAndPaymentStatus(expired, PaymentStatus.PENDING);
+        Set<String> keys = pending.stream()
+                .map(TransactionEntity::getIdempotencyKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> usedKeys = keys.isEmpty()
+                ? Set.of()
+                : transactionRepository.findIdempotencyKeysInStatus(keys, PaymentStatus.CANCELLED);
+
+        for (TransactionEntity transaction : pending) {
+            transaction.setPaymentStatus(PaymentStatus.CANCELLED);
+            transaction.setPaymentLink(null);
+            if (usedKeys.contains(transaction.getIdempotencyKey())) {
+                transaction.setIdempotencyKey(transaction.getIdempotencyKey() + ":" + transaction.getId());
+            }
+            SaleEntity sale = transaction.getSale();
+            if (sale != null && sale.getShipment() != null) {
+                sale.getShipment().setStatus(OrderStatus.CANCELLED);
             }
         }
+        log.info("Expired stock holds of {} transactions, cancelled {} pending ones", expired.size(),
+                pending.size());
+        return expired.size();
+    }
+
+    /**
+     * Stores the checkout URL of a transaction. Called once the Mercado Pago preference is
+     * created, outside the request's transaction; goes through the entity so Envers records it.
+     */
+    public void updatePaymentLink(Long id, String paymentLink) {
+        TransactionEntity transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Transaction not found with id: " + id));
+        transaction.setPaymentLink(paymentLink);
+        transactionRepository.save(transaction);
     }
 
     public void cancelTransactionById(Long id, String reason) {
@@ -147,31 +187,39 @@ public class TransactionService {
     }
 
     public void restoreStock(TransactionEntity transaction) {
-        if (transaction.getDetailTransactions() == null) return;
-
-        for (DetailTransactionEntity detail : transaction.getDetailTransactions()) {
-            ProductEntity product = detail.getProduct();
-            if (product != null) {
-                long quantityToRestore = detail.getQuantity();
-                long currentStock = product.getStock() == null ? 0 : product.getStock();
-                long currentSold = product.getSoldQuantity() == null ? 0 : product.getSoldQuantity();
-
-                product.setStock(currentStock + quantityToRestore);
-                product.setSoldQuantity(Math.max(0, currentSold - quantityToRestore));
+        for (StockService.StockChange change : stockService.releaseReservations(transaction.getId())) {
+            log.info("Restored {} units for product {}. New Stock: {}",
+                    change.newStock() - change.oldStock(), change.productName(), change.newStock());
+        }
+    }
 
-                productRepository.save(product);
-                log.info("Restored {} units for product {}. New Stock: {}", quantityToRestore, product.getName(), product.getStock());
+    /**
+     * Takes the stock of an approved transaction. If its holds expired and the units were sold
+     * meanwhile, the payment stays approved but the transaction is flagged with
+     * {@code stockShortage} for manual follow-up (refund or restock).
+     */
+    public void commitStock(TransactionEntity transaction) {
+        List<DetailTransactionRequest> details = transaction.getDetailTransactions() == null
+                ? List.of()
+                : transaction.getDetailTransactions().stream()
+                        .filter(detail -> detail.getProduct() != null)
+                        .map(detail -> new DetailTransactionRequest(detail.getProduct().getId(), detail.getQuantity()))
+                        .toList();
+        try {
+            for (StockService.StockChange change : stockService.commitReservations(transaction.getId(), details)) {
+                log.info("Committed {} units for product {}. New Stock: {}",
+                        change.oldStock() - change.newStock(), change.productName(), change.newStock());
             }
+        } catch (InsufficientStockException e) {
+            transaction.setStockShortage(true);
+            log.error("Transaction {} was approved after its stock holds expired and the units are no longer available: {}",
+                    transaction.getId(), e.getMessage());
         }
     }
 
     private StoreEntity resolveDefaultStore() {
-        return storeRepository.findAll().stream().findFirst()
+        return storeConfigCache.get()
+                .map(store -> storeRepository.getReferenceById(store.id()))
                 .orElseThrow(() -> new NotFoundException("Store configuration not found. Please register a store before creating transactions."));
     }
-
-    private ProductEntity resolveProduct(Long productId) {
-        return productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product with id " + productId + " not found"));
-    }
 }
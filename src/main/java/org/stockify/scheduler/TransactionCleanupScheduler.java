@@ -7,6 +7,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.stockify.model.service.TransactionService;
 
+/**
+ * Cancels abandoned checkouts in chunks. Each chunk commits on its own and claims its
+ * transactions with {@code SKIP LOCKED}, so a large backlog is worked off without long
+ * locks and several application nodes can run the sweep at the same time.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -14,16 +19,24 @@ public class TransactionCleanupScheduler {
 
     private final TransactionService transactionService;
 
-    @Value("${transaction.cleanup.timeout-minutes:15}") // Default to 15 minutes if not specified in application.properties
-    private int timeoutMinutes;
+    @Value("${transaction.cleanup.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${transaction.cleanup.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
 
     @Scheduled(cron = "0 * * * * *") // Runs every minute
     public void cleanupAbandonedTransactions() {
         log.debug("Running abandoned transaction cleanup task...");
+        int chunks = 0;
+        int claimed;
         try {
-            transactionService.cancelExpiredTransactions(timeoutMinutes);
+            do {
+                claimed = transactionService.cancelExpiredTransactions(chunkSize);
+                chunks++;
+            } while (claimed == chunkSize && chunks < maxChunksPerRun);
         } catch (Exception e) {
             log.error("Error during transaction cleanup task", e);
         }
     }
-}
\ No newline at end of file
+}
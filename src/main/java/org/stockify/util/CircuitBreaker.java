@@ -0,0 +1,82 @@
+package org.stockify.util;
+
+import java.time.Duration;
+
+/**
+ * Minimal circuit breaker for calls to external services.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls are refused
+ * for {@code openDuration}. Then a single trial call is let through: if it succeeds the
+ * circuit closes again, if it fails the circuit stays open for another period.
+ * </p>
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Returns whether a call may go ahead. Every permitted call must be followed by
+     * {@link #recordSuccess()} or {@link #recordFailure()}, or by {@link #release()} if it was
+     * never made.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permit whose call was never made. A half-open trial slot is freed for the
+     * next caller; state and failure count are left as they are.
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,127 @@
+package org.stockify.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Collapses the events published for the same key within a time window into one.
+ * <p>
+ * The first event for a key opens a window; events for that key that arrive before it closes
+ * are merged into the pending one with the given merge function (which receives the pending
+ * event first). When the window closes the merged event is handed to the handler on the given
+ * executor. Events arriving after that open a new window.
+ * </p>
+ * <p>
+ * The handler never runs on the timer thread. If the executor rejects a flushed event, the
+ * event goes back to pending (merged with anything that arrived meanwhile) and is retried
+ * when the next window closes.
+ * </p>
+ * <p>
+ * The number of merged events is published as {@code events.coalesced} and the number of open
+ * windows as {@code events.coalescing.pending}, both tagged with the coalescer name.
+ * </p>
+ *
+ * @param <K> the key events are grouped by, e.g. a product id
+ * @param <E> the event type
+ */
+@Slf4j
+public final class EventCoalescer<K, E> {
+
+    private final Map<K, E> pending = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final BinaryOperator<E> merge;
+    private final Consumer<E> handler;
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final Counter coalesced;
+
+    public EventCoalescer(String name, Duration window, BinaryOperator<E> merge, Consumer<E> handler,
+                          Executor executor, ScheduledExecutorService timer, MeterRegistry meterRegistry) {
+        this.windowMillis = window.toMillis();
+        this.merge = merge;
+        this.handler = handler;
+        this.executor = executor;
+        this.timer = timer;
+        this.coalesced = meterRegistry.counter("events.coalesced", "coalescer", name);
+        Gauge.builder("events.coalescing.pending", pending, Map::size)
+                .tag("coalescer", name)
+                .register(meterRegistry);
+    }
+
+    public void submit(K key, E event) {
+        if (windowMillis <= 0) {
+            try {
+                executor.execute(() -> handle(event));
+            } catch (RejectedExecutionException e) {
+                // Without a window the submitter is the publishing thread, which can take the work
+                handle(event);
+            }
+            return;
+        }
+        boolean[] opened = {false};
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                opened[0] = true;
+                return event;
+            }
+            coalesced.increment();
+            return merge.apply(current, event);
+        });
+        if (opened[0]) {
+            scheduleFlush(key);
+        }
+    }
+
+    private void flush(K key) {
+        E event = pending.remove(key);
+        if (event == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> handle(event));
+        } catch (RejectedExecutionException e) {
+            defer(key, event);
+        }
+    }
+
+    /**
+     * Puts a rejected event back as the older side of whatever is pending for its key.
+     */
+    private void defer(K key, E event) {
+        boolean[] opened = {false};
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                opened[0] = true;
+                return event;
+            }
+            return merge.apply(event, current);
+        });
+        if (opened[0]) {
+            scheduleFlush(key);
+        }
+    }
+
+    private void scheduleFlush(K key) {
+        timer.schedule(() -> flush(key), windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void handle(E event) {
+        try {
+            handler.accept(event);
+        } catch (RuntimeException e) {
+            log.error("Error handling coalesced event {}", event, e);
+        }
+    }
+}
@@ -716,3 +716,30 @@ WHERE p.sku = 'AS06701' AND c.name = 'Electronica'
 
 -- Creacion de unaccent() function for accents removal
 CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Backfill de claves normalizadas para filas insertadas por este seed (la app las mantiene en @PrePersist/@PreUpdate)
+UPDATE products
+SET name_normalized    = unaccent(lower(name)),
+    barcode_normalized = unaccent(lower(barcode))
+WHERE name_normalized IS NULL;
+
+-- Busqueda por trigramas: texto normalizado de busqueda + indice GIN (la app lo mantiene en @PrePersist/@PreUpdate)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+UPDATE products
+SET search_text = unaccent(lower(concat_ws(' ', name, brand, sku, barcode)))
+WHERE search_text IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_text_trgm ON products USING gin (search_text gin_trgm_ops);
+
+-- Disponibilidad = stock - reservas activas (ver StockReservationEntity). Una reserva vencida sigue
+-- contando hasta que el barrido la marca EXPIRED, asi nunca se vende dos veces lo que un pago aprobado puede confirmar
+CREATE OR REPLACE VIEW product_availability AS
+SELECT p.id AS product_id,
+       p.name,
+       COALESCE(p.stock_quantity, 0) AS stock,
+       COALESCE(p.stock_quantity, 0) - COALESCE((
+           SELECT SUM(r.quantity) FROM stock_reservations r
+           WHERE r.product_id = p.id AND r.status = 'ACTIVE'
+       ), 0) AS available
+FROM products p;